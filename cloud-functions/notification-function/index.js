@@ -15,6 +15,71 @@
 
 const functions = require('@google-cloud/functions-framework');
 
+/**
+ * Processa a notificação de um único feedback urgente.
+ */
+async function notifyFeedback(feedback) {
+  // compatibilidade com backend Spring
+  const feedbackId = feedback.feedbackId || feedback.id;
+  const createdAt = feedback.createdAt || feedback.date;
+
+  console.log('📋 Dados do Feedback:');
+  console.log(`   ID: ${feedbackId}`);
+  console.log(`   Aluno: ${feedback.studentName}`);
+  console.log(`   Email: ${feedback.studentEmail}`);
+  console.log(`   Curso: ${feedback.course}`);
+  console.log(`   Nota: ${feedback.rating} ⭐`);
+  console.log(`   Comentário: ${feedback.comment}`);
+  console.log(`   Data: ${createdAt}`);
+
+  // Monta a mensagem de notificação
+  const notificationMessage = `
+  ╔═══════════════════════════════════════════════════╗
+  ║     🚨 ALERTA: FEEDBACK URGENTE RECEBIDO 🚨      ║
+  ╚═══════════════════════════════════════════════════╝
+
+  📌 ID do Feedback: ${feedback.feedbackId}
+  👤 Aluno: ${feedback.studentName}
+  📧 Email: ${feedback.studentEmail}
+  📚 Curso: ${feedback.course}
+  ⭐ Nota: ${feedback.rating}/5
+
+  💬 Comentário:
+  "${feedback.comment}"
+
+  🕐 Registrado em: ${feedback.createdAt}
+
+  ⚠️  AÇÃO NECESSÁRIA: Este feedback foi marcado como urgente
+  e requer atenção imediata da equipe administrativa.
+  `;
+
+  console.log(notificationMessage);
+
+  // Aqui você pode integrar com serviços reais de notificação:
+  // - SendGrid para email
+  // - Twilio para SMS
+  // - Firebase Cloud Messaging para push notifications
+  // - Slack/Discord webhooks
+
+  // Exemplo de integração com SendGrid (descomente para usar):
+  /*
+  const sgMail = require('@sendgrid/mail');
+  sgMail.setApiKey(process.env.SENDGRID_API_KEY);
+
+  const msg = {
+    to: 'admin@feedback.com',
+    from: 'noreply@feedback.com',
+    subject: `🚨 Feedback Urgente - ${feedback.course}`,
+    text: notificationMessage,
+    html: `<pre>${notificationMessage}</pre>`,
+  };
+
+  await sgMail.send(msg);
+  */
+
+  return feedbackId;
+}
+
 /**
  * Função principal que processa notificações de feedbacks urgentes.
  */
@@ -41,24 +106,12 @@ functions.http('notifyUrgentFeedback', async (req, res) => {
   }
 
   try {
-    // Extrai dados do feedback
-    const feedback = req.body;
-
-    // compatibilidade com backend Spring
-    const feedbackId = feedback.feedbackId || feedback.id;
-    const createdAt = feedback.createdAt || feedback.date;
-
-    console.log('📋 Dados do Feedback:');
-    console.log(`   ID: ${feedbackId}`);
-    console.log(`   Aluno: ${feedback.studentName}`);
-    console.log(`   Email: ${feedback.studentEmail}`);
-    console.log(`   Curso: ${feedback.course}`);
-    console.log(`   Nota: ${feedback.rating} ⭐`);
-    console.log(`   Comentário: ${feedback.comment}`);
-    console.log(`   Data: ${createdAt}`);
+    // O backend agrupa notificações da mesma janela em um array JSON
+    const feedbacks = Array.isArray(req.body) ? req.body : [req.body];
 
     // validação
-    if (!feedbackId || !feedback.studentName) {
+    const invalid = feedbacks.some(f => !f || !(f.feedbackId || f.id) || !f.studentName);
+    if (feedbacks.length === 0 || invalid) {
       console.error('❌ Dados inválidos recebidos');
       res.status(400).json({
         success: false,
@@ -67,53 +120,13 @@ functions.http('notifyUrgentFeedback', async (req, res) => {
       return;
     }
 
-    // Monta a mensagem de notificação
-    const notificationMessage = `
-    ╔═══════════════════════════════════════════════════╗
-    ║     🚨 ALERTA: FEEDBACK URGENTE RECEBIDO 🚨      ║
-    ╚═══════════════════════════════════════════════════╝
-
-    📌 ID do Feedback: ${feedback.feedbackId}
-    👤 Aluno: ${feedback.studentName}
-    📧 Email: ${feedback.studentEmail}
-    📚 Curso: ${feedback.course}
-    ⭐ Nota: ${feedback.rating}/5
-
-    💬 Comentário:
-    "${feedback.comment}"
-
-    🕐 Registrado em: ${feedback.createdAt}
-
-    ⚠️  AÇÃO NECESSÁRIA: Este feedback foi marcado como urgente
-    e requer atenção imediata da equipe administrativa.
-    `;
-
-    console.log(notificationMessage);
-
-    // Aqui você pode integrar com serviços reais de notificação:
-    // - SendGrid para email
-    // - Twilio para SMS
-    // - Firebase Cloud Messaging para push notifications
-    // - Slack/Discord webhooks
-
-    // Exemplo de integração com SendGrid (descomente para usar):
-    /*
-    const sgMail = require('@sendgrid/mail');
-    sgMail.setApiKey(process.env.SENDGRID_API_KEY);
-
-    const msg = {
-      to: 'admin@feedback.com',
-      from: 'noreply@feedback.com',
-      subject: `🚨 Feedback Urgente - ${feedback.course}`,
-      text: notificationMessage,
-      html: `<pre>${notificationMessage}</pre>`,
-    };
-
-    await sgMail.send(msg);
-    */
+    const feedbackIds = [];
+    for (const feedback of feedbacks) {
+      feedbackIds.push(await notifyFeedback(feedback));
+    }
 
     // Registra no Cloud Logging (visível no Google Cloud Console)
-    console.log('✅ Notificação processada com sucesso');
+    console.log(`✅ ${feedbackIds.length} notificação(ões) processada(s) com sucesso`);
     console.log('📬 Administradores foram alertados');
     console.log('═══════════════════════════════════════════════════');
 
@@ -121,7 +134,8 @@ functions.http('notifyUrgentFeedback', async (req, res) => {
     res.status(200).json({
       success: true,
       message: 'Notificação enviada com sucesso',
-      feedbackId: feedback.feedbackId,
+      feedbackId: feedbackIds[0],
+      feedbackIds,
       timestamp: new Date().toISOString()
     });
 
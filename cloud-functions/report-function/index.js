@@ -26,6 +26,9 @@ const https = require('https');
 const API_BASE_URL = process.env.API_URL || 'http://localhost:8080';
 const ADMIN_EMAIL = process.env.ADMIN_EMAIL || 'admin@feedback.com';
 const ADMIN_PASSWORD = process.env.ADMIN_PASSWORD || 'admin123';
+// Espera pelo job de relatório (o POST retorna o job e o resultado é consultado depois)
+const REPORT_POLL_INTERVAL_MS = parseInt(process.env.REPORT_POLL_INTERVAL_MS || '2000', 10);
+const REPORT_TIMEOUT_MS = parseInt(process.env.REPORT_TIMEOUT_MS || '300000', 10);
 
 /**
  * Função auxiliar para fazer requisições HTTP.
@@ -82,26 +85,49 @@ async function authenticate() {
 
 /**
  * Busca o relatório semanal da API.
+ * Pede o relatório dos 7 dias até ontem (closed=true): período fechado, que a API
+ * guarda e devolve na hora se já foi gerado. Caso contrário, aguarda o job terminar.
  */
 async function fetchWeeklyReport(token) {
   console.log('📊 Buscando relatório semanal...');
 
+  const headers = {
+    'Authorization': `Bearer ${token}`,
+    'Content-Type': 'application/json'
+  };
+
   try {
-    const response = await fetch(`${API_BASE_URL}/api/admin/report/weekly`, {
+    const response = await fetch(`${API_BASE_URL}/api/admin/report/weekly?closed=true`, {
       method: 'POST',
-      headers: {
-        'Authorization': `Bearer ${token}`,
-        'Content-Type': 'application/json'
-      }
+      headers
     });
 
     if (!response.ok) {
       throw new Error(`Erro ao buscar relatório: ${response.status}`);
     }
 
-    const report = await response.json();
+    let job = await response.json();
+    const deadline = Date.now() + REPORT_TIMEOUT_MS;
+
+    while (job.status === 'PENDING' || job.status === 'RUNNING') {
+      if (Date.now() > deadline) {
+        throw new Error(`Relatório ${job.id} não concluído em ${REPORT_TIMEOUT_MS} ms`);
+      }
+      await new Promise((resolve) => setTimeout(resolve, REPORT_POLL_INTERVAL_MS));
+
+      const poll = await fetch(`${API_BASE_URL}/api/admin/reports/${job.id}`, { headers });
+      if (!poll.ok) {
+        throw new Error(`Erro ao consultar o job ${job.id}: ${poll.status}`);
+      }
+      job = await poll.json();
+    }
+
+    if (job.status !== 'COMPLETED') {
+      throw new Error(`Falha na geração do relatório ${job.id}: ${job.error}`);
+    }
+
     console.log('✅ Relatório obtido com sucesso');
-    return report;
+    return job.result;
   } catch (error) {
     console.error('❌ Erro ao buscar relatório:', error.message);
     throw error;
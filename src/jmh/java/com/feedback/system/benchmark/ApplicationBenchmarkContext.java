@@ -0,0 +1,39 @@
+package com.feedback.system.benchmark;
+
+import com.feedback.system.FeedbackSystemApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+/**
+ * Sobe a aplicação completa contra um H2 em memória exclusivo do benchmark.
+ */
+final class ApplicationBenchmarkContext {
+
+    private ApplicationBenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return start(new String[0]);
+    }
+
+    /**
+     * Como {@link #start()}, com propriedades extras (chave=valor) aplicadas por último.
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(FeedbackSystemApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.feedback.system=WARN",
+                        // Sem Cloud Function no benchmark: a outbox só acumula
+                        "notification.outbox.poll-interval-ms=3600000"
+                )
+                .properties(properties)
+                .run();
+    }
+}
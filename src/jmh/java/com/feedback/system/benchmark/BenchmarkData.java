@@ -0,0 +1,64 @@
+package com.feedback.system.benchmark;
+
+import com.feedback.system.dto.FeedbackRequest;
+import com.feedback.system.model.Feedback;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Gerador de dados sintéticos para os benchmarks.
+ * Usa semente fixa para que execuções diferentes meçam os mesmos dados.
+ */
+final class BenchmarkData {
+
+    static final String[] COURSES = {
+            "Arquitetura de Software", "Banco de Dados", "Cloud Computing", "Estruturas de Dados",
+            "Engenharia de Software", "Redes de Computadores", "Sistemas Distribuídos", "Segurança da Informação",
+            "Inteligência Artificial", "Programação Java", "Desenvolvimento Web", "DevOps",
+            "Microsserviços", "Testes de Software", "UX Design", "Gestão de Projetos"
+    };
+
+    private static final String COMMENT =
+            "A aula foi bem estruturada, mas o ritmo no final ficou rápido demais para acompanhar os exemplos.";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Feedbacks já com ID e datas, distribuídos pelos últimos {@code days} dias.
+     */
+    static List<Feedback> feedbacks(int count, int days) {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime now = LocalDateTime.now();
+        long windowSeconds = days * 24L * 3600L;
+
+        List<Feedback> feedbacks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Feedback feedback = request(i, random).toEntity();
+            LocalDateTime createdAt = now.minusSeconds(random.nextLong(windowSeconds));
+            feedback.setId(UUID.randomUUID().toString());
+            feedback.setCreatedAt(createdAt);
+            feedback.setUpdatedAt(createdAt);
+            feedbacks.add(feedback);
+        }
+        return feedbacks;
+    }
+
+    /**
+     * Requisição de criação de feedback; urgente em cerca de 5% dos casos se permitido.
+     */
+    static FeedbackRequest request(int index, SplittableRandom random) {
+        FeedbackRequest request = new FeedbackRequest();
+        request.setStudentName("Aluno " + index);
+        request.setStudentEmail("aluno" + (index % 5000) + "@aluno.com");
+        request.setCourse(COURSES[random.nextInt(COURSES.length)]);
+        request.setRating(1 + random.nextInt(5));
+        request.setComment(COMMENT);
+        request.setUrgent(random.nextInt(100) < 5);
+        return request;
+    }
+}
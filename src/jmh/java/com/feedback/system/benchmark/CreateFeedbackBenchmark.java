@@ -0,0 +1,58 @@
+package com.feedback.system.benchmark;
+
+import com.feedback.system.dto.FeedbackRequest;
+import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.service.FeedbackService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FeedbackService.createFeedback (insert, rollup, outbox e evento) contra H2 embarcado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CreateFeedbackBenchmark {
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private ConfigurableApplicationContext context;
+    private FeedbackService feedbackService;
+
+    @Setup
+    public void setup() {
+        context = ApplicationBenchmarkContext.start();
+        feedbackService = context.getBean(FeedbackService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public FeedbackResponse createFeedback() {
+        int index = sequence.incrementAndGet();
+        FeedbackRequest request = BenchmarkData.request(index, new SplittableRandom(index));
+        return feedbackService.createFeedback(request);
+    }
+}
@@ -0,0 +1,79 @@
+package com.feedback.system.benchmark;
+
+import com.feedback.system.repository.UserRepository;
+import com.feedback.system.security.JwtAuthenticationFilter;
+import com.feedback.system.security.JwtUtil;
+import com.feedback.system.security.UserStatusCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilter de ponta a ponta (header Authorization até o SecurityContext).
+ * Com tokenCacheMaxSize = 0 cada requisição verifica a assinatura novamente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"0", "10000"})
+    public long tokenCacheMaxSize;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = JwtBenchmark.newJwtUtil();
+        authorization = "Bearer " + jwtUtil.generateToken(JwtBenchmark.USERNAME, JwtBenchmark.ROLE);
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findActiveByEmail(Mockito.anyString())).thenReturn(Optional.of(true));
+        UserStatusCache userStatusCache = new UserStatusCache(userRepository);
+        ReflectionTestUtils.setField(userStatusCache, "ttlMs", 30000L);
+        ReflectionTestUtils.setField(userStatusCache, "maxSize", 10000L);
+        ReflectionTestUtils.invokeMethod(userStatusCache, "init");
+
+        filter = new JwtAuthenticationFilter(jwtUtil, userStatusCache, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "tokenCacheMaxSize", tokenCacheMaxSize);
+        ReflectionTestUtils.setField(filter, "tokenCacheTtlMs", 300000L);
+        ReflectionTestUtils.invokeMethod(filter, "init");
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/feedbacks/me");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,93 @@
+package com.feedback.system.benchmark;
+
+import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.model.Feedback;
+import com.feedback.system.repository.FeedbackBatchRepository;
+import com.feedback.system.repository.FeedbackRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem da última semana com 100 mil feedbacks: entidades gerenciadas convertidas
+ * em FeedbackResponse (caminho antigo) contra a projeção JPQL direto no DTO em
+ * transação somente leitura (caminho atual).
+ * Para comparar o heap alocado por listagem, rode com o profiler de GC:
+ * -Djmh.args="ListingProjection -prof gc" (métrica gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ListingProjectionBenchmark {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    @Param({"100000"})
+    public int feedbacks;
+
+    private ConfigurableApplicationContext context;
+    private FeedbackRepository feedbackRepository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setup() {
+        context = ApplicationBenchmarkContext.start();
+        feedbackRepository = context.getBean(FeedbackRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        FeedbackBatchRepository batchRepository = context.getBean(FeedbackBatchRepository.class);
+        for (int from = 0; from < feedbacks; from += LOAD_BATCH_SIZE) {
+            List<Feedback> batch = BenchmarkData.feedbacks(Math.min(LOAD_BATCH_SIZE, feedbacks - from), 7);
+            readWrite.executeWithoutResult(status -> batchRepository.insertAll(batch));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Caminho anterior: entidades gerenciadas (com snapshot de dirty checking) e conversão.
+     */
+    @Benchmark
+    public List<FeedbackResponse> entities() {
+        LocalDateTime now = LocalDateTime.now();
+        return readWrite.execute(status -> feedbackRepository.findByCreatedAtBetween(now.minusDays(7), now)
+                .stream()
+                .map(FeedbackResponse::fromEntity)
+                .toList());
+    }
+
+    /**
+     * Caminho atual: projeção no DTO, sem entidades no contexto de persistência.
+     */
+    @Benchmark
+    public List<FeedbackResponse> projection() {
+        LocalDateTime now = LocalDateTime.now();
+        return readOnly.execute(status -> feedbackRepository.findResponsesByCreatedAtBetween(now.minusDays(7), now));
+    }
+}
@@ -0,0 +1,83 @@
+package com.feedback.system.benchmark;
+
+import com.feedback.system.model.Feedback;
+import com.feedback.system.repository.FeedbackBatchRepository;
+import com.feedback.system.service.RangeReportEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RangeReportEngine.aggregate sobre 1 e 10 milhões de feedbacks distribuídos pelo
+ * último ano, em H2 embarcado, agrupando por mês e por curso.
+ * parallelism = 1 lê os blocos em sequência; 0 usa o padrão da aplicação (núcleos
+ * limitados à metade do pool de conexões). O cenário de 10 milhões usa -Xmx12g e
+ * leva vários minutos para popular a base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class RangeReportBenchmark {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int DAYS = 365;
+
+    @Param({"1000000", "10000000"})
+    public int feedbacks;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private ConfigurableApplicationContext context;
+    private RangeReportEngine rangeReportEngine;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    public void setup() {
+        context = ApplicationBenchmarkContext.start("feedback.report.range.parallelism=" + parallelism);
+        rangeReportEngine = context.getBean(RangeReportEngine.class);
+
+        FeedbackBatchRepository batchRepository = context.getBean(FeedbackBatchRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        for (int loaded = 0; loaded < feedbacks; loaded += LOAD_BATCH_SIZE) {
+            List<Feedback> batch = BenchmarkData.feedbacks(Math.min(LOAD_BATCH_SIZE, feedbacks - loaded), DAYS);
+            transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(batch));
+        }
+        to = LocalDate.now();
+        from = to.minusDays(DAYS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RangeReportEngine.Result byMonth() {
+        return rangeReportEngine.aggregate(from, to, null, RangeReportEngine.GroupBy.MONTH);
+    }
+
+    @Benchmark
+    public RangeReportEngine.Result byCourse() {
+        return rangeReportEngine.aggregate(from, to, null, RangeReportEngine.GroupBy.COURSE);
+    }
+}
@@ -0,0 +1,70 @@
+package com.feedback.system.benchmark;
+
+import com.feedback.system.model.Feedback;
+import com.feedback.system.repository.FeedbackBatchRepository;
+import com.feedback.system.service.FeedbackRollupService;
+import com.feedback.system.service.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReportService.generateWeeklyReport sobre bases sintéticas de 1 mil a 1 milhão
+ * de feedbacks distribuídos pelos últimos 7 dias, em H2 embarcado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReportAggregationBenchmark {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int feedbacks;
+
+    private ConfigurableApplicationContext context;
+    private ReportService reportService;
+
+    @Setup
+    public void setup() {
+        context = ApplicationBenchmarkContext.start();
+        reportService = context.getBean(ReportService.class);
+
+        FeedbackBatchRepository batchRepository = context.getBean(FeedbackBatchRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        for (int from = 0; from < feedbacks; from += LOAD_BATCH_SIZE) {
+            List<Feedback> batch = BenchmarkData.feedbacks(Math.min(LOAD_BATCH_SIZE, feedbacks - from), 7);
+            transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(batch));
+        }
+        context.getBean(FeedbackRollupService.class).rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> generateWeeklyReport() {
+        return reportService.generateWeeklyReport(LocalDate.now());
+    }
+}
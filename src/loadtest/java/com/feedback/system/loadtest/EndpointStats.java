@@ -0,0 +1,57 @@
+package com.feedback.system.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências (HDR, em microssegundos) e contadores de uma entrada do workload.
+ * A latência é medida a partir do instante planejado de envio, não do envio real,
+ * para não esconder o tempo de fila quando o gerador ou o servidor atrasam.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void record(long intendedStartNanos, long endNanos, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(endNanos - intendedStartNanos);
+        latencies.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Requisição não enviada por excesso de chamadas simultâneas; conta como erro.
+     */
+    void drop() {
+        dropped.increment();
+    }
+
+    String name() {
+        return name;
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,53 @@
+package com.feedback.system.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, lidos de argumentos no formato --chave=valor.
+ *
+ * @param rate        requisições por segundo (taxa aberta, independente das respostas)
+ * @param warmup      duração do aquecimento, descartado das estatísticas
+ * @param duration    duração da medição
+ * @param workload    arquivo JSONL com o mix de requisições (null usa o do classpath)
+ * @param maxInFlight limite de requisições simultâneas; acima dele a chamada conta como descartada
+ * @param output      arquivo JSON com o resultado
+ * @param seed        semente do sorteio do mix
+ * @param target      URL base de uma aplicação já em execução (null sobe a aplicação neste processo)
+ */
+record LoadTestConfig(
+        double rate,
+        Duration warmup,
+        Duration duration,
+        Path workload,
+        int maxInFlight,
+        Path output,
+        long seed,
+        String target
+) {
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg + " (use --chave=valor)");
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        String workload = values.get("workload");
+        return new LoadTestConfig(
+                Double.parseDouble(values.getOrDefault("rate", "100")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                workload != null ? Path.of(workload) : null,
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                Path.of(values.getOrDefault("output", "target/loadtest-result.json")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.get("target")
+        );
+    }
+}
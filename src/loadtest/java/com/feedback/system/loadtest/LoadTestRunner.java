@@ -0,0 +1,325 @@
+package com.feedback.system.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.feedback.system.FeedbackSystemApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga.
+ * Com --target, gera carga contra uma aplicação já em execução em outro processo
+ * (o modo usado para medições: cliente e servidor não disputam heap, GC nem CPU da mesma JVM).
+ * Sem --target, sobe a aplicação neste processo contra um H2 em memória (verificação rápida).
+ * Faz login com os usuários criados em
+ * FeedbackSystemApplication.initData e reproduz o mix do workload a uma taxa fixa
+ * (modelo aberto: o envio segue o agendamento, independente das respostas).
+ * Latências são medidas a partir do instante planejado de cada envio,
+ * o que corrige a omissão coordenada.
+ *
+ * Uso: ./mvnw -P loadtest test-compile exec:java -Dexec.args="--target=http://localhost:8080 --rate=200 --duration=60"
+ */
+public final class LoadTestRunner {
+
+    private static final Map<String, List<String[]>> SEEDED_USERS = Map.of(
+            "ADMIN", List.<String[]>of(new String[]{"admin@feedback.com", "admin123"}),
+            "STUDENT", List.of(
+                    new String[]{"maria.silva@aluno.com", "maria123"},
+                    new String[]{"joao.santos@aluno.com", "joao123"}
+            )
+    );
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int CREATED_IDS_CAPACITY = 1024;
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .build();
+
+    private final Map<String, List<LoggedUser>> usersByRole = new HashMap<>();
+    private final Map<String, EndpointStats> statsByName = new LinkedHashMap<>();
+    private final AtomicReferenceArray<String> createdIds = new AtomicReferenceArray<>(CREATED_IDS_CAPACITY);
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private String baseUrl;
+
+    /**
+     * Usuário autenticado e seu token.
+     */
+    private record LoggedUser(String email, String token) {
+    }
+
+    private LoadTestRunner(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        if (config.target() != null) {
+            String target = config.target();
+            new LoadTestRunner(config).run(target.endsWith("/") ? target.substring(0, target.length() - 1) : target);
+            return;
+        }
+        try (ConfigurableApplicationContext context = startApplication()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            new LoadTestRunner(config).run("http://localhost:" + port);
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(FeedbackSystemApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.feedback.system=WARN",
+                        // Sem rede: a Cloud Function de notificação não é chamada
+                        "notification.outbox.poll-interval-ms=3600000",
+                        // Poucos alunos, todos do mesmo IP: com o limite ligado, a carga mediria só o 429
+                        "security.rate-limit.enabled=false"
+                )
+                .run();
+    }
+
+    private void run(String baseUrl) throws Exception {
+        this.baseUrl = baseUrl;
+        Workload workload = Workload.load(config.workload(), objectMapper);
+        workload.entries().forEach(entry -> statsByName.computeIfAbsent(entry.name(), EndpointStats::new));
+
+        login();
+        seedFeedbacks();
+
+        System.out.printf("Carga: %.1f req/s, aquecimento %ds, medição %ds, %d entradas no workload%n",
+                config.rate(), config.warmup().toSeconds(), config.duration().toSeconds(), workload.entries().size());
+
+        drive(workload);
+        awaitInFlight();
+        report();
+    }
+
+    private void login() throws Exception {
+        for (Map.Entry<String, List<String[]>> role : SEEDED_USERS.entrySet()) {
+            List<LoggedUser> users = new ArrayList<>();
+            for (String[] credentials : role.getValue()) {
+                String body = objectMapper.writeValueAsString(Map.of("email", credentials[0], "password", credentials[1]));
+                HttpResponse<String> response = httpClient.send(
+                        HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(body))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Login falhou para " + credentials[0] + ": " + response.statusCode());
+                }
+                users.add(new LoggedUser(credentials[0], objectMapper.readTree(response.body()).path("token").asText()));
+            }
+            usersByRole.put(role.getKey(), users);
+        }
+    }
+
+    /**
+     * Cria um feedback por aluno para que {feedbackId} tenha valor desde o início.
+     */
+    private void seedFeedbacks() throws Exception {
+        for (LoggedUser student : usersByRole.get("STUDENT")) {
+            String body = objectMapper.writeValueAsString(Map.of(
+                    "studentName", student.email(),
+                    "studentEmail", student.email(),
+                    "course", "Teste de Carga",
+                    "rating", 4,
+                    "comment", "Feedback inicial do teste de carga",
+                    "urgent", false
+            ));
+            HttpResponse<String> response = httpClient.send(
+                    request("POST", "/api/feedbacks", body, student.token()),
+                    HttpResponse.BodyHandlers.ofString());
+            rememberCreatedId(response.body());
+        }
+    }
+
+    /**
+     * Dispara as requisições nos instantes planejados, sem esperar as respostas.
+     */
+    private void drive(Workload workload) {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + config.warmup().toNanos();
+        long endNanos = measureFromNanos + config.duration().toNanos();
+
+        for (long i = 0; ; i++) {
+            long intendedStart = startNanos + Math.round(i * intervalNanos);
+            if (intendedStart >= endNanos) {
+                break;
+            }
+            waitUntil(intendedStart);
+
+            Workload.Entry entry = workload.next(random);
+            EndpointStats stats = intendedStart >= measureFromNanos ? statsByName.get(entry.name()) : null;
+
+            if (inFlight.get() >= config.maxInFlight()) {
+                if (stats != null) {
+                    stats.drop();
+                }
+                continue;
+            }
+
+            List<LoggedUser> users = usersByRole.get(entry.role());
+            LoggedUser user = users.get(random.nextInt(users.size()));
+            HttpRequest request = request(entry.method(), resolve(entry.path(), user, i), resolve(entry.body(), user, i), user.token());
+
+            inFlight.incrementAndGet();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                long endTime = System.nanoTime();
+                inFlight.decrementAndGet();
+                boolean success = error == null && response.statusCode() < 400;
+                if (stats != null) {
+                    stats.record(intendedStart, endTime, success);
+                }
+                if (success && "POST".equals(entry.method())) {
+                    rememberCreatedId(response.body());
+                }
+            });
+        }
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Espera as chamadas pendentes terminarem (conexão + resposta, com folga) para que
+     * nenhuma conclusão tardia altere os contadores depois do relatório.
+     */
+    private void awaitInFlight() {
+        long deadline = System.nanoTime() + CONNECT_TIMEOUT.plus(REQUEST_TIMEOUT).plusSeconds(5).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        if (inFlight.get() > 0) {
+            System.out.printf("Aviso: %d chamadas ainda pendentes ficam fora do relatório%n", inFlight.get());
+        }
+    }
+
+    private HttpRequest request(String method, String path, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+            return builder.method(method, HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+        return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private String resolve(String template, LoggedUser user, long sequence) {
+        if (template == null) {
+            return null;
+        }
+        String resolved = template
+                .replace("{email}", user.email())
+                .replace("{n}", String.valueOf(sequence));
+        if (resolved.contains("{feedbackId}")) {
+            long count = Math.min(createdCount.get(), CREATED_IDS_CAPACITY);
+            String id = createdIds.get((int) (sequence % Math.max(count, 1)));
+            resolved = resolved.replace("{feedbackId}", id != null ? id : "");
+        }
+        return resolved;
+    }
+
+    private void rememberCreatedId(String body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            if (id != null && id.isTextual()) {
+                createdIds.set((int) (createdCount.getAndIncrement() % CREATED_IDS_CAPACITY), id.asText());
+            }
+        } catch (Exception ignored) {
+            // Resposta sem JSON: nada a reaproveitar
+        }
+    }
+
+    private void report() throws Exception {
+        double seconds = config.duration().toMillis() / 1000.0;
+        Histogram overall = new Histogram(TimeUnit.MINUTES.toMicros(2), 3);
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+
+        System.out.printf("%n%-32s %9s %7s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "count", "errors", "dropped", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats stats : statsByName.values()) {
+            Histogram latencies = stats.latencies().copy();
+            overall.add(latencies);
+            endpoints.add(summarize(stats.name(), latencies, stats.errors(), stats.dropped(), seconds));
+        }
+        long errors = statsByName.values().stream().mapToLong(EndpointStats::errors).sum();
+        long dropped = statsByName.values().stream().mapToLong(EndpointStats::dropped).sum();
+        Map<String, Object> total = summarize("TOTAL", overall, errors, dropped, seconds);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("generatedAt", LocalDateTime.now().toString());
+        result.put("target", config.target() != null ? config.target() : "in-process");
+        result.put("rate", config.rate());
+        result.put("warmupSeconds", config.warmup().toSeconds());
+        result.put("durationSeconds", config.duration().toSeconds());
+        result.put("endpoints", endpoints);
+        result.put("total", total);
+
+        Files.createDirectories(config.output().toAbsolutePath().getParent());
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(config.output().toFile(), result);
+        System.out.printf("%nResultado gravado em %s%n", config.output().toAbsolutePath());
+    }
+
+    private static Map<String, Object> summarize(String name, Histogram latencies, long errors, long dropped, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", name);
+        summary.put("count", latencies.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("dropped", dropped);
+        summary.put("throughput", latencies.getTotalCount() / seconds);
+        summary.put("p50Ms", millis(latencies.getValueAtPercentile(50)));
+        summary.put("p99Ms", millis(latencies.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(latencies.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(latencies.getMaxValue()));
+
+        System.out.printf("%-32s %9d %7d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name, latencies.getTotalCount(), errors, dropped, latencies.getTotalCount() / seconds,
+                summary.get("p50Ms"), summary.get("p99Ms"), summary.get("p999Ms"), summary.get("maxMs"));
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
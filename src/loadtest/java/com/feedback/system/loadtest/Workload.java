@@ -0,0 +1,105 @@
+package com.feedback.system.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Mix de requisições lido de um arquivo JSONL, uma entrada por linha:
+ * <pre>
+ * {"name": "criar-feedback", "role": "STUDENT", "method": "POST", "path": "/api/feedbacks", "weight": 60, "body": {...}}
+ * </pre>
+ * No path e no body, {email} vira o email do usuário sorteado, {n} um número sequencial
+ * e {feedbackId} o ID de um feedback criado anteriormente.
+ */
+final class Workload {
+
+    static final String DEFAULT_RESOURCE = "/requests.jsonl";
+
+    /**
+     * Uma entrada do mix.
+     */
+    record Entry(String name, String role, String method, String path, String body, int weight) {
+    }
+
+    private final List<Entry> entries;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private Workload(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("Workload vazio");
+        }
+        this.entries = entries;
+        this.cumulativeWeights = new int[entries.size()];
+        int total = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            total += entries.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+        this.totalWeight = total;
+    }
+
+    static Workload load(Path file, ObjectMapper objectMapper) throws IOException {
+        if (file != null) {
+            try (InputStream input = Files.newInputStream(file)) {
+                return read(input, objectMapper);
+            }
+        }
+        try (InputStream input = Workload.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (input == null) {
+                throw new IOException("Workload padrão não encontrado: " + DEFAULT_RESOURCE);
+            }
+            return read(input, objectMapper);
+        }
+    }
+
+    private static Workload read(InputStream input, ObjectMapper objectMapper) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node = objectMapper.readTree(line);
+            JsonNode body = node.get("body");
+            entries.add(new Entry(
+                    node.path("name").asText(node.path("method").asText() + " " + node.path("path").asText()),
+                    node.path("role").asText("STUDENT"),
+                    node.path("method").asText("GET"),
+                    node.path("path").asText(),
+                    body == null || body.isNull() ? null : objectMapper.writeValueAsString(body),
+                    node.path("weight").asInt(1)
+            ));
+        }
+        return new Workload(entries);
+    }
+
+    List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Sorteia uma entrada respeitando os pesos.
+     */
+    Entry next(SplittableRandom random) {
+        int pick = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return entries.get(i);
+            }
+        }
+        return entries.get(entries.size() - 1);
+    }
+}
@@ -7,12 +7,14 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Classe principal da aplicação Spring Boot.
  * Sistema de Gerenciamento de Feedbacks com Arquitetura Serverless.
  */
 @SpringBootApplication
+@EnableScheduling
 @Slf4j
 public class FeedbackSystemApplication {
 
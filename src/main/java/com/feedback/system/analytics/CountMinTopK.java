@@ -0,0 +1,118 @@
+package com.feedback.system.analytics;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Count-min sketch com lista de candidatos top-K (cursos com mais feedbacks).
+ * Com largura w = 1024 e profundidade d = 4, a estimativa de um curso nunca fica
+ * abaixo do valor real e excede-o em no máximo e/w ≈ 0,27% do total de feedbacks
+ * do período, com probabilidade 1 − e^−4 ≈ 98%. Ocupa 16 KB por dia, qualquer que
+ * seja o volume. A mesclagem soma os contadores e une os candidatos, reestimados
+ * no sketch combinado.
+ */
+public final class CountMinTopK {
+
+    public static final int WIDTH = 1024;
+    public static final int DEPTH = 4;
+    public static final int CANDIDATES = 32;
+
+    private final int[][] counters = new int[DEPTH][WIDTH];
+    private final Set<Integer> candidates = new HashSet<>();
+    private long total;
+
+    public void add(int key, int count) {
+        long hash = SketchHash.hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < DEPTH; row++) {
+            counters[row][Math.floorMod(h1 + row * h2, WIDTH)] += count;
+        }
+        total += count;
+        candidates.add(key);
+        trimCandidates();
+    }
+
+    public long estimate(int key) {
+        long hash = SketchHash.hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters[row][Math.floorMod(h1 + row * h2, WIDTH)]);
+        }
+        return estimate;
+    }
+
+    public void merge(CountMinTopK other) {
+        for (int row = 0; row < DEPTH; row++) {
+            for (int column = 0; column < WIDTH; column++) {
+                counters[row][column] += other.counters[row][column];
+            }
+        }
+        total += other.total;
+        candidates.addAll(other.candidates);
+        trimCandidates();
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Os {@code limit} candidatos com maior estimativa, em ordem decrescente.
+     */
+    public Map<Integer, Long> top(int limit) {
+        Map<Integer, Long> top = new LinkedHashMap<>();
+        candidates.stream()
+                .sorted(Comparator.comparingLong(this::estimate).reversed().thenComparing(Comparator.naturalOrder()))
+                .limit(limit)
+                .forEach(key -> top.put(key, estimate(key)));
+        return top;
+    }
+
+    private void trimCandidates() {
+        if (candidates.size() <= CANDIDATES) {
+            return;
+        }
+        List<Integer> keep = new ArrayList<>(top(CANDIDATES).keySet());
+        candidates.clear();
+        candidates.addAll(keep);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer out = ByteBuffer.allocate(Long.BYTES + DEPTH * WIDTH * Integer.BYTES
+                + Integer.BYTES + candidates.size() * Integer.BYTES);
+        out.putLong(total);
+        for (int[] row : counters) {
+            for (int counter : row) {
+                out.putInt(counter);
+            }
+        }
+        out.putInt(candidates.size());
+        candidates.forEach(out::putInt);
+        return out.array();
+    }
+
+    public static CountMinTopK fromBytes(byte[] data) {
+        CountMinTopK sketch = new CountMinTopK();
+        ByteBuffer in = ByteBuffer.wrap(data);
+        sketch.total = in.getLong();
+        for (int[] row : sketch.counters) {
+            for (int column = 0; column < WIDTH; column++) {
+                row[column] = in.getInt();
+            }
+        }
+        int candidates = in.getInt();
+        for (int i = 0; i < candidates; i++) {
+            sketch.candidates.add(in.getInt());
+        }
+        return sketch;
+    }
+}
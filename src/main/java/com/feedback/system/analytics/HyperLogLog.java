@@ -0,0 +1,96 @@
+package com.feedback.system.analytics;
+
+import java.nio.ByteBuffer;
+
+/**
+ * HyperLogLog para contagem aproximada de valores distintos (alunos por curso e dia).
+ * Com precisão p = 12 (4096 registradores de 1 byte) o erro padrão é
+ * 1,04 / √4096 ≈ 1,6%: em ~95% das consultas a estimativa fica a menos de 3,3% do valor real.
+ * Até ~2,5 × 4096 valores usa a correção de contagem linear, praticamente exata para poucos alunos.
+ * A mesclagem (máximo por registrador) é associativa e idempotente, então sketches
+ * de dias, cursos e instâncias diferentes podem ser combinados em qualquer ordem.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 12;
+
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    public void add(String value) {
+        long hash = SketchHash.hash(value);
+        int index = (int) (hash >>> (64 - PRECISION));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Serializa em formato esparso (índice + valor dos registradores não nulos)
+     * enquanto isso for menor que os 4096 bytes do formato denso.
+     */
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                nonZero++;
+            }
+        }
+        if (nonZero * 3 < REGISTERS) {
+            ByteBuffer out = ByteBuffer.allocate(1 + Short.BYTES + nonZero * 3);
+            out.put(SPARSE).putShort((short) nonZero);
+            for (int i = 0; i < REGISTERS; i++) {
+                if (registers[i] != 0) {
+                    out.putShort((short) i).put(registers[i]);
+                }
+            }
+            return out.array();
+        }
+        ByteBuffer out = ByteBuffer.allocate(1 + REGISTERS);
+        out.put(DENSE).put(registers);
+        return out.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] data) {
+        HyperLogLog sketch = new HyperLogLog();
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (in.get() == SPARSE) {
+            int entries = Short.toUnsignedInt(in.getShort());
+            for (int i = 0; i < entries; i++) {
+                sketch.registers[Short.toUnsignedInt(in.getShort())] = in.get();
+            }
+        } else {
+            in.get(sketch.registers);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,38 @@
+package com.feedback.system.analytics;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hash de 64 bits para os sketches (FNV-1a seguido do finalizador do MurmurHash3).
+ * Estável entre execuções e instâncias, requisito para mesclar sketches persistidos.
+ */
+final class SketchHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SketchHash() {
+    }
+
+    static long hash(String value) {
+        long hash = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    static long hash(int value) {
+        return mix(value * 0x9e3779b97f4a7c15L);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
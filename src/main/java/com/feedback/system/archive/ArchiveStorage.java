@@ -0,0 +1,37 @@
+package com.feedback.system.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Armazenamento dos arquivos de partições arquivadas (NDJSON gzip).
+ * Implementações: Google Cloud Storage (produção) e sistema de arquivos local.
+ * Selecionada por feedback.archive.storage (gcs ou local).
+ */
+public interface ArchiveStorage {
+
+    /**
+     * Conteúdo de um arquivo, escrito no stream fornecido pelo armazenamento.
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Grava um arquivo. Ele só fica visível se o writer terminar sem erro;
+     * em caso de falha nenhum arquivo parcial é publicado.
+     */
+    void write(String key, ContentWriter writer) throws IOException;
+
+    /**
+     * Abre um arquivo já gravado para leitura.
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Descrição do local do arquivo, para logs e respostas da API.
+     */
+    String location(String key);
+}
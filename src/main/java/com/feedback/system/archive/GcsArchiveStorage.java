@@ -0,0 +1,57 @@
+package com.feedback.system.archive;
+
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+
+/**
+ * Arquivos em um bucket do Google Cloud Storage.
+ * Usa as credenciais padrão do ambiente (conta de serviço do Cloud Run/GKE).
+ * A gravação é um upload resumível, finalizado só quando o conteúdo termina sem erro.
+ */
+@Component
+@ConditionalOnProperty(name = "feedback.archive.storage", havingValue = "gcs")
+public class GcsArchiveStorage implements ArchiveStorage {
+
+    private static final String CONTENT_TYPE = "application/x-ndjson";
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Storage storage;
+    private final String bucket;
+
+    public GcsArchiveStorage(@Value("${feedback.archive.gcs.bucket}") String bucket) {
+        this.storage = StorageOptions.getDefaultInstance().getService();
+        this.bucket = bucket;
+    }
+
+    @Override
+    public void write(String key, ContentWriter writer) throws IOException {
+        BlobInfo blob = BlobInfo.newBuilder(BlobId.of(bucket, key)).setContentType(CONTENT_TYPE).build();
+        WriteChannel channel = storage.writer(blob);
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        // Sem close em caso de erro: o upload não é finalizado e a sessão expira no GCS
+        writer.writeTo(out);
+        out.close();
+    }
+
+    @Override
+    public InputStream open(String key) {
+        return Channels.newInputStream(storage.reader(BlobId.of(bucket, key)));
+    }
+
+    @Override
+    public String location(String key) {
+        return "gs://" + bucket + "/" + key;
+    }
+}
@@ -0,0 +1,66 @@
+package com.feedback.system.archive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Arquivos no sistema de arquivos local (desenvolvimento e testes).
+ * A escrita vai para um arquivo temporário, renomeado ao final.
+ */
+@Component
+@ConditionalOnProperty(name = "feedback.archive.storage", havingValue = "local", matchIfMissing = true)
+public class LocalArchiveStorage implements ArchiveStorage {
+
+    private final Path root;
+
+    public LocalArchiveStorage(@Value("${feedback.archive.local.directory:./archive}") String directory) {
+        this.root = Path.of(directory).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void write(String key, ContentWriter writer) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                writer.writeTo(out);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException("Arquivo não encontrado: " + path);
+        }
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public String location(String key) {
+        return resolve(key).toUri().toString();
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Chave de arquivo inválida: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,53 @@
+package com.feedback.system.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Modo de execução da aplicação: threads de plataforma (padrão) ou threads virtuais.
+ * As threads virtuais são usadas com spring.threads.virtual.enabled=true em Java 21+,
+ * o mesmo critério que o Spring Boot aplica ao Tomcat e ao agendador.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionMode {
+
+    private final Environment environment;
+
+    private boolean virtualThreads;
+
+    @PostConstruct
+    void init() {
+        virtualThreads = Threading.VIRTUAL.isActive(environment);
+        if (!virtualThreads && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("Threads virtuais exigem Java 21+. Usando threads de plataforma (Java {})",
+                    Runtime.version().feature());
+        }
+        log.info("Modo de execução: threads {}", virtualThreads ? "virtuais" : "de plataforma");
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Fábrica de threads para executores da aplicação, conforme o modo ativo.
+     */
+    public ThreadFactory threadFactory(String threadNamePrefix) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
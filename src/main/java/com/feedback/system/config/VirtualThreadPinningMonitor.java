@@ -0,0 +1,85 @@
+package com.feedback.system.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Detecta threads virtuais presas ao carrier (pinning) via JFR, apenas no modo de threads virtuais.
+ * Um bloqueio dentro de bloco synchronized (comum em drivers JDBC e no H2) prende o carrier;
+ * cada ocorrência acima do limite é registrada em log com a pilha e contada em
+ * jvm.threads.virtual.pinned, com a tag source=jdbc quando a pilha passa por código JDBC.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_FRAMES = 15;
+    private static final List<String> JDBC_PACKAGES = List.of(
+            "java.sql.", "org.h2.", "org.postgresql.", "com.zaxxer.hikari.", "org.hibernate.");
+
+    private final ExecutionMode executionMode;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feedback.virtual-threads.pinned-threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream stream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!executionMode.isVirtualThreads()) {
+            return;
+        }
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Monitor de pinning de threads virtuais ativo (limite {} ms)", thresholdMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        boolean jdbc = frames.stream().anyMatch(VirtualThreadPinningMonitor::isJdbcFrame);
+
+        Counter.builder("jvm.threads.virtual.pinned")
+                .description("Threads virtuais presas ao carrier acima do limite configurado")
+                .tag("source", jdbc ? "jdbc" : "other")
+                .register(meterRegistry)
+                .increment();
+
+        StringBuilder stack = new StringBuilder();
+        frames.stream().limit(MAX_LOGGED_FRAMES).forEach(frame -> stack.append("\n\tat ")
+                .append(frame.getMethod().getType().getName()).append('.')
+                .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber()));
+        log.warn("Thread virtual presa ao carrier por {} ms{}{}", event.getDuration().toMillis(),
+                jdbc ? " (caminho JDBC)" : "", stack);
+    }
+
+    private static boolean isJdbcFrame(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return JDBC_PACKAGES.stream().anyMatch(type::startsWith);
+    }
+}
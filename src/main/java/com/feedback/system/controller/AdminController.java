@@ -1,20 +1,52 @@
 package com.feedback.system.controller;
 
+import com.feedback.system.dto.BulkImportResponse;
+import com.feedback.system.dto.CourseResponse;
+import com.feedback.system.dto.FeedbackPage;
 import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.dto.FeedbackSearchPage;
+import com.feedback.system.dto.ReportJobResponse;
+import com.feedback.system.model.FeedbackArchive;
+import com.feedback.system.model.ReportJob;
+import com.feedback.system.service.BulkImportService;
+import com.feedback.system.service.CourseCatalog;
+import com.feedback.system.service.DataVersion;
+import com.feedback.system.service.FeedbackAnalyticsService;
+import com.feedback.system.service.FeedbackArchiveService;
+import com.feedback.system.service.FeedbackRollupService;
+import com.feedback.system.service.FeedbackSearchService;
 import com.feedback.system.service.FeedbackService;
+import com.feedback.system.service.FeedbackStatsService;
+import com.feedback.system.service.ReportJobService;
+import com.feedback.system.service.RangeReportEngine;
 import com.feedback.system.service.ReportService;
+import com.feedback.system.service.UrgentFeedbackStreamService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller para operações administrativas.
  * Acessível apenas por ROLE_ADMIN.
+ * Os relatórios são gerados no executor de relatórios, liberando a thread da requisição.
  */
 @RestController
 @RequestMapping("/api/admin")
@@ -25,94 +57,414 @@ public class AdminController {
 
     private final FeedbackService feedbackService;
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
+    private final BulkImportService bulkImportService;
+    private final FeedbackRollupService feedbackRollupService;
+    private final FeedbackStatsService feedbackStatsService;
+    private final UrgentFeedbackStreamService urgentFeedbackStreamService;
+    private final FeedbackSearchService feedbackSearchService;
+    private final CourseCatalog courseCatalog;
+    private final FeedbackArchiveService feedbackArchiveService;
+    private final FeedbackAnalyticsService feedbackAnalyticsService;
+    private final DataVersion dataVersion;
 
     /**
-     * Listar todos os feedbacks.
-     * GET /api/admin/feedbacks
+     * Listar todos os feedbacks (paginado, mais recentes primeiro).
+     * GET /api/admin/feedbacks?lastWeek=&cursor=&size=
      * Acesso: ADMIN
+     * O token da próxima página é retornado no header X-Next-Cursor.
+     * Suporta If-None-Match: sem novos dados desde o ETag informado, responde 304.
      */
     @GetMapping("/feedbacks")
     public ResponseEntity<List<FeedbackResponse>> getAllFeedbacks(
-            @RequestParam(required = false) Boolean lastWeek
+            @RequestParam(required = false) Boolean lastWeek,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest
     ) {
-        log.info("Admin solicitando todos os feedbacks. LastWeek: {}", lastWeek);
-
-        if (Boolean.TRUE.equals(lastWeek)) {
-            // Retorna feedbacks da última semana
-            List<FeedbackResponse> feedbacks = feedbackService.getLastWeekFeedbacks()
-                    .stream()
-                    .map(FeedbackResponse::fromEntity)
-                    .toList();
-            return ResponseEntity.ok(feedbacks);
+        // A janela da última semana desliza com o tempo: a data entra no ETag
+        LocalDate window = Boolean.TRUE.equals(lastWeek) ? LocalDate.now() : null;
+        if (webRequest.checkNotModified(dataVersion.etag("feedbacks", lastWeek, window, cursor, size))) {
+            return null;
         }
+        log.info("Admin solicitando todos os feedbacks. LastWeek: {}", lastWeek);
+        FeedbackPage page = feedbackService.getFeedbacksPage(Boolean.TRUE.equals(lastWeek), cursor, size);
+        return toResponse(page);
+    }
 
-        List<FeedbackResponse> feedbacks = feedbackService.getAllFeedbacks();
-        return ResponseEntity.ok(feedbacks);
+    /**
+     * Importação em massa de feedbacks.
+     * POST /api/admin/feedbacks/bulk
+     * Acesso: ADMIN
+     * Corpo NDJSON (um feedback por linha), opcionalmente compactado com gzip.
+     */
+    @PostMapping("/feedbacks/bulk")
+    public ResponseEntity<BulkImportResponse> bulkImportFeedbacks(HttpServletRequest request) throws IOException {
+        log.info("Admin iniciando importação em massa de feedbacks");
+        BulkImportResponse response = bulkImportService.importNdjson(request.getInputStream());
+        return ResponseEntity.ok(response);
     }
 
     /**
-     * Listar feedbacks urgentes.
-     * GET /api/admin/feedbacks/urgent
+     * Listar feedbacks urgentes (paginado, mais recentes primeiro).
+     * GET /api/admin/feedbacks/urgent?cursor=&size=
      * Acesso: ADMIN
+     * Suporta If-None-Match (304 sem novos dados).
      */
     @GetMapping("/feedbacks/urgent")
-    public ResponseEntity<List<FeedbackResponse>> getUrgentFeedbacks() {
+    public ResponseEntity<List<FeedbackResponse>> getUrgentFeedbacks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest
+    ) {
+        if (webRequest.checkNotModified(dataVersion.etag("feedbacks/urgent", cursor, size))) {
+            return null;
+        }
         log.info("Admin solicitando feedbacks urgentes");
-        List<FeedbackResponse> feedbacks = feedbackService.getUrgentFeedbacks();
-        return ResponseEntity.ok(feedbacks);
+        FeedbackPage page = feedbackService.getUrgentFeedbacksPage(cursor, size);
+        return toResponse(page);
+    }
+
+    /**
+     * Busca textual nos comentários, ordenada por relevância.
+     * GET /api/admin/feedbacks/search?q=&course=&rating=&urgent=&page=&size=
+     * Acesso: ADMIN
+     * Todos os termos de q precisam aparecer no comentário (acentos e plurais são ignorados).
+     * A paginação alcança no máximo feedback.search.max-result-window resultados; além disso, 400.
+     */
+    @GetMapping("/feedbacks/search")
+    public ResponseEntity<FeedbackSearchPage> searchFeedbacks(
+            @RequestParam String q,
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false) Integer rating,
+            @RequestParam(required = false) Boolean urgent,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size
+    ) {
+        log.info("Admin buscando feedbacks: {}", q);
+        return ResponseEntity.ok(feedbackSearchService.search(q, course, rating, urgent, page, size));
     }
 
     /**
-     * Gerar relatório semanal manualmente.
-     * POST /api/admin/report/weekly
+     * Reconstruir o índice de busca a partir do banco (em segundo plano).
+     * POST /api/admin/feedbacks/search/rebuild
      * Acesso: ADMIN
      */
+    @PostMapping("/feedbacks/search/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        log.info("Admin solicitando reconstrução do índice de busca");
+        boolean started = feedbackSearchService.rebuildAsync();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "message", started ? "Reconstrução do índice iniciada" : "Reconstrução já em andamento"
+        ));
+    }
+
+    /**
+     * Stream (SSE) de feedbacks urgentes.
+     * GET /api/admin/feedbacks/urgent/stream
+     * Acesso: ADMIN
+     * Envia cada feedback urgente após o commit; com o header Last-Event-ID,
+     * reenvia os eventos perdidos que ainda estão no buffer de retomada.
+     */
+    @GetMapping(path = "/feedbacks/urgent/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUrgentFeedbacks(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        log.info("Admin inscrito no stream de feedbacks urgentes");
+        return urgentFeedbackStreamService.subscribe(lastEventId);
+    }
+
+    /**
+     * Gerar relatório semanal manualmente (job em segundo plano).
+     * POST /api/admin/report/weekly?closed=
+     * Acesso: ADMIN
+     * closed=true usa os 7 dias até ontem: período fechado, reaproveitado se já gerado.
+     * Responde 202 com o job (acompanhar em GET /api/admin/reports/{id}) ou 200 se já concluído.
+     */
     @PostMapping("/report/weekly")
-    public ResponseEntity<Map<String, Object>> generateWeeklyReport() {
-        log.info("Admin solicitando geração de relatório semanal");
-        Map<String, Object> report = reportService.generateWeeklyReport();
-        return ResponseEntity.ok(report);
+    public ResponseEntity<ReportJobResponse> generateWeeklyReport(
+            @RequestParam(defaultValue = "false") boolean closed
+    ) {
+        log.info("Admin solicitando geração de relatório semanal (closed={})", closed);
+        return toJobResponse(reportJobService.submitWeekly(closed));
     }
 
     /**
      * Gerar relatório semanal em formato texto.
      * GET /api/admin/report/weekly/text
      * Acesso: ADMIN
+     * Suporta If-None-Match; o período do relatório muda a cada dia, então a data entra no ETag.
      */
     @GetMapping("/report/weekly/text")
-    public ResponseEntity<String> generateWeeklyReportText() {
+    public CompletableFuture<ResponseEntity<String>> generateWeeklyReportText(WebRequest webRequest) {
+        if (webRequest.checkNotModified(dataVersion.etag("report/weekly/text", LocalDate.now()))) {
+            return null;
+        }
         log.info("Admin solicitando relatório semanal em texto");
-        String report = reportService.generateWeeklyReportText();
-        return ResponseEntity.ok(report);
+        return reportService.submit(reportService::generateWeeklyReportText).thenApply(ResponseEntity::ok);
     }
 
     /**
-     * Gerar relatório completo.
+     * Gerar relatório completo (job em segundo plano).
      * POST /api/admin/report/full
      * Acesso: ADMIN
      */
     @PostMapping("/report/full")
-    public ResponseEntity<Map<String, Object>> generateFullReport() {
+    public ResponseEntity<ReportJobResponse> generateFullReport() {
         log.info("Admin solicitando relatório completo");
-        Map<String, Object> report = reportService.generateFullReport();
-        return ResponseEntity.ok(report);
+        return toJobResponse(reportJobService.submitFull());
+    }
+
+    /**
+     * Consultar um job de relatório (status e, quando concluído, o resultado).
+     * GET /api/admin/reports/{id}
+     * Acesso: ADMIN
+     */
+    @GetMapping("/reports/{id}")
+    public ResponseEntity<ReportJobResponse> getReportJob(@PathVariable String id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    private static ResponseEntity<ReportJobResponse> toJobResponse(ReportJobResponse job) {
+        if (job.getStatus() == ReportJob.Status.COMPLETED) {
+            return ResponseEntity.ok(job);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/reports/" + job.getId()))
+                .body(job);
+    }
+
+    /**
+     * Gerar relatório de um curso.
+     * GET /api/admin/report/course?course=...
+     * Acesso: ADMIN
+     */
+    @GetMapping("/report/course")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> generateCourseReport(@RequestParam String course) {
+        log.info("Admin solicitando relatório do curso: {}", course);
+        return reportService.submit(() -> reportService.generateCourseReport(course)).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Gerar relatório histórico de um intervalo de dias.
+     * GET /api/admin/report/history?from=yyyy-MM-dd&to=yyyy-MM-dd&courseId=
+     * Acesso: ADMIN
+     * Dias fechados são lidos dos segmentos colunares; só o dia corrente vai ao banco.
+     */
+    @GetMapping("/report/history")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> generateHistoricalReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer courseId
+    ) {
+        log.info("Admin solicitando relatório histórico de {} a {}", from, to);
+        return reportService.submit(() -> reportService.generateHistoricalReport(from, to, courseId))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Gerar relatório de um intervalo de dias agrupado por dia, semana, mês ou curso.
+     * GET /api/admin/report/range?from=yyyy-MM-dd&to=yyyy-MM-dd&courseId=&groupBy=DAY|WEEK|MONTH|COURSE
+     * Acesso: ADMIN
+     * Agregado em paralelo direto dos feedbacks no banco (meses arquivados não entram).
+     * Intervalo de até feedback.report.range.max-days dias (400 por padrão); acima disso, 400.
+     */
+    @GetMapping("/report/range")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> generateRangeReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer courseId,
+            @RequestParam(defaultValue = "DAY") RangeReportEngine.GroupBy groupBy
+    ) {
+        log.info("Admin solicitando relatório de {} a {} por {}", from, to, groupBy);
+        return reportService.submit(() -> reportService.generateRangeReport(from, to, courseId, groupBy))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Alunos distintos no período (HyperLogLog, erro padrão relativo ~1,6%).
+     * GET /api/admin/analytics/distinct-students?from=yyyy-MM-dd&to=yyyy-MM-dd&courseId=
+     * Acesso: ADMIN
+     * Sem datas, considera o mês corrente.
+     */
+    @GetMapping("/analytics/distinct-students")
+    public ResponseEntity<Map<String, Object>> getDistinctStudents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer courseId
+    ) {
+        LocalDate[] period = analyticsPeriod(from, to);
+        log.info("Admin solicitando alunos distintos de {} a {}", period[0], period[1]);
+        return ResponseEntity.ok(feedbackAnalyticsService.distinctStudents(period[0], period[1], courseId));
+    }
+
+    /**
+     * Percentis de nota (p10, p25, p50, p75, p90) no período, exatos.
+     * GET /api/admin/analytics/rating-percentiles?from=yyyy-MM-dd&to=yyyy-MM-dd&courseId=
+     * Acesso: ADMIN
+     */
+    @GetMapping("/analytics/rating-percentiles")
+    public ResponseEntity<Map<String, Object>> getRatingPercentiles(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer courseId
+    ) {
+        if (courseId != null) {
+            requireCourse(courseId);
+        }
+        LocalDate[] period = analyticsPeriod(from, to);
+        log.info("Admin solicitando percentis de nota de {} a {}", period[0], period[1]);
+        return ResponseEntity.ok(feedbackAnalyticsService.ratingPercentiles(period[0], period[1], courseId));
+    }
+
+    /**
+     * Cursos com mais feedbacks no período (count-min, superestima no máximo maxOverestimate).
+     * GET /api/admin/analytics/top-courses?from=yyyy-MM-dd&to=yyyy-MM-dd&limit=10
+     * Acesso: ADMIN
+     */
+    @GetMapping("/analytics/top-courses")
+    public ResponseEntity<Map<String, Object>> getTopCourses(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit deve ser maior que zero");
+        }
+        LocalDate[] period = analyticsPeriod(from, to);
+        log.info("Admin solicitando cursos com mais feedbacks de {} a {}", period[0], period[1]);
+        return ResponseEntity.ok(feedbackAnalyticsService.topCourses(period[0], period[1], limit));
+    }
+
+    /**
+     * Recalcular os sketches de analytics a partir dos feedbacks (em segundo plano).
+     * POST /api/admin/analytics/rebuild
+     * Acesso: ADMIN
+     */
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAnalytics() {
+        log.info("Admin solicitando reconstrução dos sketches de analytics");
+        if (!feedbackAnalyticsService.rebuildAsync()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Reconstrução já em andamento");
+        }
+        return ResponseEntity.accepted().body(Map.of("status", "REBUILDING"));
+    }
+
+    private static LocalDate[] analyticsPeriod(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from deve ser anterior ou igual a to");
+        }
+        return new LocalDate[] {start, end};
+    }
+
+    /**
+     * Listar os meses de feedbacks arquivados (partições removidas do banco).
+     * GET /api/admin/archives
+     * Acesso: ADMIN
+     */
+    @GetMapping("/archives")
+    public ResponseEntity<List<FeedbackArchive>> getArchives() {
+        log.info("Admin solicitando meses arquivados");
+        return ResponseEntity.ok(feedbackArchiveService.listArchives());
+    }
+
+    /**
+     * Gerar relatório de um mês arquivado (lido do arquivo sob demanda).
+     * GET /api/admin/archives/{month}/report  (month no formato yyyy-MM)
+     * Acesso: ADMIN
+     */
+    @GetMapping("/archives/{month}/report")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> generateArchivedMonthReport(
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month
+    ) {
+        log.info("Admin solicitando relatório do mês arquivado: {}", month);
+        return reportService.submit(() -> reportService.generateArchivedMonthReport(month))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Listar o catálogo de cursos.
+     * GET /api/admin/courses
+     * Acesso: ADMIN
+     */
+    @GetMapping("/courses")
+    public ResponseEntity<List<CourseResponse>> getCourses() {
+        log.info("Admin solicitando catálogo de cursos");
+        return ResponseEntity.ok(courseCatalog.listAll().stream().map(CourseResponse::fromEntity).toList());
+    }
+
+    /**
+     * Listar feedbacks de um curso (paginado, mais recentes primeiro).
+     * GET /api/admin/courses/{courseId}/feedbacks?cursor=&size=
+     * Acesso: ADMIN
+     * O token da próxima página é retornado no header X-Next-Cursor.
+     */
+    @GetMapping("/courses/{courseId}/feedbacks")
+    public ResponseEntity<List<FeedbackResponse>> getCourseFeedbacks(
+            @PathVariable Integer courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        requireCourse(courseId);
+        log.info("Admin solicitando feedbacks do curso: {}", courseId);
+        return toResponse(feedbackService.getCourseFeedbacksPage(courseId, cursor, size));
+    }
+
+    /**
+     * Média de avaliações de um curso.
+     * GET /api/admin/courses/{courseId}/average
+     * Acesso: ADMIN
+     */
+    @GetMapping("/courses/{courseId}/average")
+    public ResponseEntity<Map<String, Object>> getCourseAverage(@PathVariable Integer courseId) {
+        String name = requireCourse(courseId);
+        log.info("Admin solicitando média do curso: {}", courseId);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("courseId", courseId);
+        response.put("course", name);
+        response.putAll(feedbackService.getCourseRatingSummary(courseId));
+        return ResponseEntity.ok(response);
+    }
+
+    private String requireCourse(Integer courseId) {
+        return courseCatalog.nameOf(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Curso não encontrado"));
+    }
+
+    /**
+     * Recalcular os rollups de relatório a partir dos feedbacks.
+     * POST /api/admin/rollups/rebuild
+     * Acesso: ADMIN
+     * Meses arquivados mantêm os rollups atuais (os feedbacks deles não estão mais no banco).
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        log.info("Admin solicitando recálculo dos rollups");
+        int rows = feedbackRollupService.rebuild();
+        dataVersion.advance();
+        return ResponseEntity.ok(Map.of("rollupRows", rows));
     }
 
     /**
      * Estatísticas gerais.
      * GET /api/admin/stats
      * Acesso: ADMIN
+     * Respondido pelos contadores em memória, sem consultar o banco.
      */
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStatistics() {
-        log.info("Admin solicitando estatísticas");
+        log.debug("Admin solicitando estatísticas");
 
-        Map<String, Object> stats = Map.of(
-                "totalFeedbacks", feedbackService.getAllFeedbacks().size(),
-                "urgentFeedbacks", feedbackService.countUrgentFeedbacks(),
-                "averageRating", feedbackService.calculateOverallAverageRating()
-        );
+        return ResponseEntity.ok(feedbackStatsService.snapshot());
+    }
 
-        return ResponseEntity.ok(stats);
+    private ResponseEntity<List<FeedbackResponse>> toResponse(FeedbackPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(FeedbackPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
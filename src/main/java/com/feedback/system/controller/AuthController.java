@@ -2,10 +2,14 @@ package com.feedback.system.controller;
 
 import com.feedback.system.dto.AuthResponse;
 import com.feedback.system.dto.LoginRequest;
+import com.feedback.system.security.LoginCapacityExceededException;
 import com.feedback.system.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,6 +24,9 @@ public class AuthController {
 
     private final AuthService authService;
 
+    @Value("${security.login.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
     /**
      * Endpoint de login.
      * POST /api/auth/login
@@ -39,4 +46,15 @@ public class AuthController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Sistema de Feedbacks - Online");
     }
+
+    /**
+     * Logins recusados por saturação do executor de senhas: 503 com Retry-After.
+     */
+    @ExceptionHandler(LoginCapacityExceededException.class)
+    public ResponseEntity<String> handleLoginCapacityExceeded(LoginCapacityExceededException e) {
+        log.warn("Login recusado: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(e.getMessage());
+    }
 }
@@ -1,8 +1,12 @@
 package com.feedback.system.controller;
 
+import com.feedback.system.dto.FeedbackPage;
 import com.feedback.system.dto.FeedbackRequest;
 import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.service.FeedbackIngestionService;
 import com.feedback.system.service.FeedbackService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,9 +14,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller para operações de feedback de alunos.
@@ -25,35 +31,78 @@ import java.util.List;
 public class FeedbackController {
 
     private final FeedbackService feedbackService;
+    private final FeedbackIngestionService feedbackIngestionService;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Criar novo feedback.
      * POST /api/feedbacks
      * Acesso: STUDENT ou ADMIN
+     * Com a ingestão em lote ativa, a resposta é liberada após o commit do lote.
      */
     @PostMapping
     @PreAuthorize("hasAnyRole('STUDENT', 'ADMIN')")
-    public ResponseEntity<FeedbackResponse> createFeedback(
+    public CompletableFuture<ResponseEntity<FeedbackResponse>> createFeedback(
             @Valid @RequestBody FeedbackRequest request,
             Authentication authentication
     ) {
         log.info("Criando feedback - Usuário: {}", authentication.getName());
-        FeedbackResponse response = feedbackService.createFeedback(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        Timer timer = createTimer("/api/feedbacks", authentication, request.isUrgent());
+
+        if (feedbackIngestionService.isEnabled()) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return feedbackIngestionService.submit(request)
+                    .whenComplete((response, error) -> sample.stop(timer))
+                    .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+        }
+
+        FeedbackResponse response = timer.record(() -> feedbackService.createFeedback(request));
+        return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    /**
+     * Criar novo feedback sem aguardar a gravação (fire-and-forget).
+     * POST /api/feedbacks/async
+     * Acesso: STUDENT ou ADMIN
+     * Retorna 202 com o ID já gerado.
+     */
+    @PostMapping("/async")
+    @PreAuthorize("hasAnyRole('STUDENT', 'ADMIN')")
+    public ResponseEntity<FeedbackResponse> createFeedbackAsync(
+            @Valid @RequestBody FeedbackRequest request,
+            Authentication authentication
+    ) {
+        log.info("Enfileirando feedback - Usuário: {}", authentication.getName());
+
+        FeedbackResponse response = createTimer("/api/feedbacks/async", authentication, request.isUrgent())
+                .record(() -> feedbackIngestionService.isEnabled()
+                        ? feedbackIngestionService.enqueue(request)
+                        : feedbackService.createFeedback(request));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 
     /**
-     * Listar feedbacks do aluno logado.
-     * GET /api/feedbacks/me
+     * Listar feedbacks do aluno logado (paginado, mais recentes primeiro).
+     * GET /api/feedbacks/me?cursor=&size=
      * Acesso: STUDENT
+     * O token da próxima página é retornado no header X-Next-Cursor.
      */
     @GetMapping("/me")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<List<FeedbackResponse>> getMyFeedbacks(Authentication authentication) {
+    public ResponseEntity<List<FeedbackResponse>> getMyFeedbacks(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
         String email = authentication.getName();
         log.info("Buscando feedbacks do aluno: {}", email);
-        List<FeedbackResponse> feedbacks = feedbackService.getFeedbacksByStudent(email);
-        return ResponseEntity.ok(feedbacks);
+        FeedbackPage page = feedbackService.getFeedbacksByStudentPage(email, cursor, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(FeedbackPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     /**
@@ -68,4 +117,20 @@ public class FeedbackController {
         FeedbackResponse feedback = feedbackService.getFeedbackById(id);
         return ResponseEntity.ok(feedback);
     }
+
+    /**
+     * Timer de criação de feedback com as tags de endpoint, role do usuário e urgência.
+     */
+    private Timer createTimer(String endpoint, Authentication authentication, boolean urgent) {
+        String role = authentication.getAuthorities().stream()
+                .findFirst()
+                .map(GrantedAuthority::getAuthority)
+                .orElse("NONE");
+        return Timer.builder("feedback.create")
+                .description("Tempo de criação de feedback")
+                .tag("endpoint", endpoint)
+                .tag("role", role)
+                .tag("urgent", String.valueOf(urgent))
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,28 @@
+package com.feedback.system.dto;
+
+import com.feedback.system.model.Feedback;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de uma linha da importação em massa (NDJSON).
+ * Mesmas restrições de FeedbackRequest, com data de criação opcional
+ * para preservar a data original de dados históricos.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class BulkFeedbackRecord extends FeedbackRequest {
+
+    private LocalDateTime createdAt;
+
+    @Override
+    public Feedback toEntity() {
+        Feedback feedback = super.toEntity();
+        feedback.setCreatedAt(createdAt);
+        return feedback;
+    }
+}
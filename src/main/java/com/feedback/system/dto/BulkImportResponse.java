@@ -0,0 +1,33 @@
+package com.feedback.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para resposta da importação em massa.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResponse {
+
+    private long totalLines;
+    private long imported;
+    private long rejected;
+    private List<LineError> errors;
+    private boolean errorsTruncated;
+
+    /**
+     * Erros de uma linha específica do arquivo (numeração a partir de 1).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;
+        private List<String> messages;
+    }
+}
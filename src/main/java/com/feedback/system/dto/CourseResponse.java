@@ -0,0 +1,25 @@
+package com.feedback.system.dto;
+
+import com.feedback.system.model.Course;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para resposta do catálogo de cursos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseResponse {
+
+    private Integer id;
+    private String name;
+
+    /**
+     * Converte uma entidade Course para DTO.
+     */
+    public static CourseResponse fromEntity(Course course) {
+        return new CourseResponse(course.getId(), course.getName());
+    }
+}
@@ -0,0 +1,48 @@
+package com.feedback.system.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de continuação da paginação por keyset (createdAt, id).
+ * Trafega como token opaco em base64url.
+ */
+public record FeedbackCursor(LocalDateTime createdAt, String id) {
+
+    /**
+     * Cursor anterior a qualquer feedback (primeira página, ordem decrescente).
+     */
+    public static final FeedbackCursor START = new FeedbackCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), "");
+
+    private static final char SEPARATOR = '|';
+
+    public static FeedbackCursor after(FeedbackResponse feedback) {
+        return new FeedbackCursor(feedback.getCreatedAt(), feedback.getId());
+    }
+
+    /**
+     * Converte o token recebido do cliente; null ou vazio indica a primeira página.
+     */
+    public static FeedbackCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new FeedbackCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor de paginação inválido");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,24 @@
+package com.feedback.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de feedbacks com o token de continuação (null na última página).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackPage {
+
+    /**
+     * Header HTTP que transporta o token da próxima página.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<FeedbackResponse> items;
+    private String nextCursor;
+}
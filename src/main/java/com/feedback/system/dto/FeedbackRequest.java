@@ -1,5 +1,6 @@
 package com.feedback.system.dto;
 
+import com.feedback.system.model.Feedback;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -32,4 +33,18 @@ public class FeedbackRequest {
     private String comment;
 
     private boolean urgent;
+
+    /**
+     * Converte o DTO em uma nova entidade Feedback (ainda não persistida).
+     */
+    public Feedback toEntity() {
+        Feedback feedback = new Feedback();
+        feedback.setStudentName(studentName);
+        feedback.setStudentEmail(studentEmail);
+        feedback.setCourse(course);
+        feedback.setRating(rating);
+        feedback.setComment(comment);
+        feedback.setUrgent(urgent);
+        return feedback;
+    }
 }
@@ -0,0 +1,32 @@
+package com.feedback.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados da busca textual, em ordem de relevância.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackSearchPage {
+
+    private List<Hit> items;
+    private long total;
+    private int page;
+    private int size;
+
+    /**
+     * Feedback encontrado e sua pontuação (BM25).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private double score;
+        private FeedbackResponse feedback;
+    }
+}
@@ -0,0 +1,29 @@
+package com.feedback.system.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.feedback.system.model.ReportJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO para resposta de um job de relatório. result só é preenchido quando o status é COMPLETED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+
+    private String id;
+    private ReportJob.Type type;
+    private ReportJob.Status status;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private JsonNode result;
+    private String error;
+}
@@ -0,0 +1,13 @@
+package com.feedback.system.event;
+
+import com.feedback.system.dto.FeedbackResponse;
+
+import java.util.List;
+
+/**
+ * Evento publicado dentro da transação que grava novos feedbacks.
+ * Ouvintes com @TransactionalEventListener o recebem somente após o commit.
+ * Um evento pode conter um único feedback ou um lote inteiro.
+ */
+public record FeedbackCreatedEvent(List<FeedbackResponse> feedbacks) {
+}
@@ -0,0 +1,11 @@
+package com.feedback.system.event;
+
+import java.time.YearMonth;
+
+/**
+ * Evento publicado após o commit do DETACH de uma partição mensal.
+ * Os feedbacks do mês saem das consultas: caches, índice de busca e ETags
+ * que os incluíam precisam ser descartados.
+ */
+public record FeedbackPartitionDetachedEvent(YearMonth month, String partitionName) {
+}
@@ -0,0 +1,27 @@
+package com.feedback.system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Catálogo de cursos. Cada feedback referencia o curso por um ID inteiro compacto
+ * (feedbacks.course_id), usado nos índices e nas consultas por curso.
+ */
+@Entity
+@Table(name = "courses", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_courses_name", columnNames = "name")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Course {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String name;
+}
@@ -14,9 +14,10 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "feedbacks", indexes = {
-    @Index(name = "idx_urgent", columnList = "urgent"),
-    @Index(name = "idx_created_at", columnList = "createdAt"),
-    @Index(name = "idx_student_email", columnList = "studentEmail")
+    @Index(name = "idx_urgent_created_at_id", columnList = "urgent, createdAt, id"),
+    @Index(name = "idx_created_at_id", columnList = "createdAt, id"),
+    @Index(name = "idx_student_email_created_at_id", columnList = "studentEmail, createdAt, id"),
+    @Index(name = "idx_course_id_created_at_id", columnList = "courseId, createdAt, id")
 })
 @Data
 @NoArgsConstructor
@@ -40,6 +41,13 @@ public class Feedback {
     @Column(nullable = false)
     private String course;
 
+    /**
+     * Referência ao catálogo de cursos (courses.id). Nulo apenas em linhas
+     * anteriores ao catálogo, até o backfill da inicialização preenchê-las.
+     */
+    @Column(name = "course_id")
+    private Integer courseId;
+
     @Min(value = 1, message = "Nota mínima é 1")
     @Max(value = 5, message = "Nota máxima é 5")
     @Column(nullable = false)
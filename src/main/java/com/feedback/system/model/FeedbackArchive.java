@@ -0,0 +1,50 @@
+package com.feedback.system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de uma partição mensal de feedbacks retirada do banco.
+ * DETACHED: partição desanexada, exportação pendente (retomada no próximo ciclo).
+ * ARCHIVED: arquivo gravado e conferido, partição removida do banco.
+ */
+@Entity
+@Table(name = "feedback_archives")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackArchive {
+
+    /**
+     * Mês no formato yyyy-MM.
+     */
+    @Id
+    @Column(length = 7)
+    private String month;
+
+    @Column(nullable = false)
+    private String partitionName;
+
+    @Column(nullable = false)
+    private String objectKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private long rowCount;
+
+    @Column(nullable = false)
+    private LocalDateTime detachedAt;
+
+    private LocalDateTime archivedAt;
+
+    public enum Status {
+        DETACHED,
+        ARCHIVED
+    }
+}
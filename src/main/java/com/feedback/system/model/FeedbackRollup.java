@@ -0,0 +1,63 @@
+package com.feedback.system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Entidade de agregação diária de feedbacks por curso.
+ * Mantida incrementalmente a cada inserção e usada pelos relatórios
+ * no lugar de carregar os feedbacks individuais.
+ */
+@Entity
+@Table(name = "feedback_daily_rollups")
+@IdClass(FeedbackRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackRollup {
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate rollupDate;
+
+    @Id
+    @Column(nullable = false)
+    private String course;
+
+    @Column(nullable = false)
+    private long rating1;
+
+    @Column(nullable = false)
+    private long rating2;
+
+    @Column(nullable = false)
+    private long rating3;
+
+    @Column(nullable = false)
+    private long rating4;
+
+    @Column(nullable = false)
+    private long rating5;
+
+    @Column(nullable = false)
+    private long urgentCount;
+
+    @Column(nullable = false)
+    private long criticalCount;
+
+    /**
+     * Chave composta (dia, curso).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate rollupDate;
+        private String course;
+    }
+}
@@ -0,0 +1,58 @@
+package com.feedback.system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Sketch probabilístico serializado de um dia.
+ * DISTINCT_STUDENTS: HyperLogLog dos alunos de um curso (courseId).
+ * COURSE_COUNTS: count-min + top-K de feedbacks por curso (courseId = 0, todos os cursos).
+ */
+@Entity
+@Table(name = "feedback_daily_sketches")
+@IdClass(FeedbackSketch.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedbackSketch {
+
+    public static final int ALL_COURSES = 0;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate sketchDate;
+
+    @Id
+    @Column(nullable = false)
+    private int courseId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Kind kind;
+
+    @Column(nullable = false, length = 20000)
+    private byte[] data;
+
+    public enum Kind {
+        DISTINCT_STUDENTS,
+        COURSE_COUNTS
+    }
+
+    /**
+     * Chave composta (dia, curso, tipo).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate sketchDate;
+        private int courseId;
+        private Kind kind;
+    }
+}
@@ -0,0 +1,85 @@
+package com.feedback.system.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Geração de relatório em segundo plano.
+ * O resultado (JSON) fica gravado e é servido por GET /api/admin/reports/{id}.
+ * Relatórios de períodos fechados guardam o total de feedbacks do período
+ * (pelos rollups) para serem reaproveitados enquanto esse total não mudar.
+ */
+@Entity
+@Table(name = "report_jobs", indexes = {
+    @Index(name = "idx_report_jobs_dedup_key_status", columnList = "dedupKey, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    private LocalDate periodStart;
+
+    private LocalDate periodEnd;
+
+    /**
+     * Tipo + período: pedidos com a mesma chave compartilham o job.
+     */
+    @Column(nullable = false, length = 64)
+    private String dedupKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    /**
+     * Total de feedbacks do período quando o relatório foi gerado (apenas períodos fechados).
+     */
+    private Long periodTotal;
+
+    @Column(length = 1000000)
+    private String result;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (status == null) {
+            status = Status.PENDING;
+        }
+    }
+
+    public enum Type {
+        WEEKLY,
+        FULL
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,39 @@
+package com.feedback.system.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório JDBC do backfill de feedbacks.course_id para linhas anteriores ao catálogo de cursos.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CourseBackfillRepository {
+
+    private static final String INSERT_MISSING_COURSES_SQL =
+            "INSERT INTO courses (name) SELECT DISTINCT f.course FROM feedbacks f "
+                    + "WHERE f.course_id IS NULL AND NOT EXISTS (SELECT 1 FROM courses c WHERE c.name = f.course)";
+
+    private static final String BACKFILL_CHUNK_SQL =
+            "UPDATE feedbacks SET course_id = (SELECT c.id FROM courses c WHERE c.name = feedbacks.course) "
+                    + "WHERE id IN (SELECT f.id FROM feedbacks f WHERE f.course_id IS NULL "
+                    + "AND EXISTS (SELECT 1 FROM courses c WHERE c.name = f.course) LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Cadastra no catálogo os cursos citados por feedbacks ainda sem course_id.
+     */
+    public int insertMissingCourses() {
+        return jdbcTemplate.update(INSERT_MISSING_COURSES_SQL);
+    }
+
+    /**
+     * Preenche o course_id de até {@code limit} feedbacks cujo curso já está no catálogo.
+     * Retorna as linhas atualizadas (0 quando não resta nada a preencher).
+     */
+    public int backfillChunk(int limit) {
+        return jdbcTemplate.update(BACKFILL_CHUNK_SQL, limit);
+    }
+}
@@ -0,0 +1,68 @@
+package com.feedback.system.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório JDBC da internação de cursos na ingestão.
+ * Roda na conexão da transação em andamento, sem passar pelo contexto de persistência:
+ * uma violação de unicidade desfeita por savepoint não deixa o EntityManager inconsistente.
+ * O savepoint é tomado direto na conexão JDBC: o JpaTransactionManager não aceita
+ * PROPAGATION_NESTED com Hibernate.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CourseInternRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Integer> findId(String name) {
+        List<Integer> ids = jdbcTemplate.queryForList("SELECT id FROM courses WHERE name = ?", Integer.class, name);
+        return ids.stream().findFirst();
+    }
+
+    /**
+     * Insere o curso e retorna o ID gerado. Dentro de uma transação, a inserção roda sob
+     * um savepoint; se falhar (nome criado em paralelo), o savepoint é desfeito e a
+     * transação continua válida, inclusive no PostgreSQL. A falha sobe como
+     * DataIntegrityViolationException.
+     */
+    public Integer insert(String name) {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (connection.getAutoCommit()) {
+                return insert(connection, name);
+            }
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                Integer id = insert(connection, name);
+                connection.releaseSavepoint(savepoint);
+                return id;
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+        });
+    }
+
+    private static Integer insert(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO courses (name) VALUES (?)", new String[]{"id"})) {
+            statement.setString(1, name);
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.feedback.system.repository;
+
+import com.feedback.system.model.Course;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositório do catálogo de cursos.
+ */
+@Repository
+public interface CourseRepository extends JpaRepository<Course, Integer> {
+
+    /**
+     * Busca um curso pelo nome exato.
+     */
+    Optional<Course> findByName(String name);
+}
@@ -0,0 +1,13 @@
+package com.feedback.system.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção com o total de feedbacks de um dia, somado dos rollups.
+ */
+public interface DailyFeedbackCount {
+
+    LocalDate getDay();
+
+    Long getTotal();
+}
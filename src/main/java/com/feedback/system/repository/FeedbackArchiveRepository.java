@@ -0,0 +1,24 @@
+package com.feedback.system.repository;
+
+import com.feedback.system.model.FeedbackArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositório dos registros de partições arquivadas.
+ */
+@Repository
+public interface FeedbackArchiveRepository extends JpaRepository<FeedbackArchive, String> {
+
+    /**
+     * Lista os arquivos em um status, do mês mais antigo ao mais recente.
+     */
+    List<FeedbackArchive> findByStatusOrderByMonthAsc(FeedbackArchive.Status status);
+
+    /**
+     * Lista todos os registros, do mês mais recente ao mais antigo.
+     */
+    List<FeedbackArchive> findAllByOrderByMonthDesc();
+}
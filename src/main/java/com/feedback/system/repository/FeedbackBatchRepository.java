@@ -0,0 +1,49 @@
+package com.feedback.system.repository;
+
+import com.feedback.system.model.Feedback;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Repositório JDBC para inserção de feedbacks em lote.
+ * Usa batch inserts do driver, sem passar pelo contexto de persistência do Hibernate.
+ * O chamador é responsável por abrir a transação (um commit por lote).
+ */
+@Repository
+@RequiredArgsConstructor
+public class FeedbackBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO feedbacks "
+                    + "(id, student_name, student_email, course, course_id, rating, comment, urgent, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insere todos os feedbacks em um único batch JDBC.
+     * Os feedbacks já devem ter ID, courseId e datas preenchidos.
+     */
+    public void insertAll(List<Feedback> feedbacks) {
+        if (feedbacks.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, feedbacks, feedbacks.size(), (ps, feedback) -> {
+            ps.setString(1, feedback.getId());
+            ps.setString(2, feedback.getStudentName());
+            ps.setString(3, feedback.getStudentEmail());
+            ps.setString(4, feedback.getCourse());
+            ps.setObject(5, feedback.getCourseId(), Types.INTEGER);
+            ps.setInt(6, feedback.getRating());
+            ps.setString(7, feedback.getComment());
+            ps.setBoolean(8, feedback.isUrgent());
+            ps.setTimestamp(9, Timestamp.valueOf(feedback.getCreatedAt()));
+            ps.setTimestamp(10, Timestamp.valueOf(feedback.getUpdatedAt()));
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package com.feedback.system.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Repositório JDBC das partições mensais de feedbacks (somente PostgreSQL).
+ * As partições seguem o nome feedbacks_pYYYYMM e cobrem [início do mês, início do mês seguinte).
+ * A partição padrão feedbacks_default recebe as linhas fora das partições mensais
+ * (importações com datas antigas ou futuras), para que a inserção nunca falhe.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FeedbackPartitionRepository {
+
+    private static final String PARTITION_PREFIX = "feedbacks_p";
+    private static final String DEFAULT_PARTITION = "feedbacks_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("feedbacks_p\\d{6}");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                    + "WHERE c.relname = 'feedbacks' AND pg_table_is_visible(c.oid)";
+
+    private static final String ATTACHED_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i "
+                    + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                    + "WHERE p.relname = 'feedbacks' AND pg_table_is_visible(p.oid) ORDER BY c.relname";
+
+    private static final String TABLE_EXISTS_SQL =
+            "SELECT COUNT(*) FROM pg_class WHERE relname = ? AND relkind = 'r' AND pg_table_is_visible(oid)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+
+    public static YearMonth monthOf(String partitionName) {
+        return YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), SUFFIX);
+    }
+
+    /**
+     * Indica se o banco é PostgreSQL e a tabela feedbacks já é particionada.
+     */
+    public boolean isPartitioned() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (product == null || !product.toLowerCase().contains("postgres")) {
+            return false;
+        }
+        Integer count = jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Integer.class);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Nomes das partições mensais anexadas a feedbacks.
+     */
+    public List<String> findAttachedPartitions() {
+        return jdbcTemplate.queryForList(ATTACHED_PARTITIONS_SQL, String.class).stream()
+                .filter(name -> PARTITION_NAME.matcher(name).matches())
+                .toList();
+    }
+
+    public boolean tableExists(String partitionName) {
+        String name = DEFAULT_PARTITION.equals(partitionName) ? partitionName : checked(partitionName);
+        Integer count = jdbcTemplate.queryForObject(TABLE_EXISTS_SQL, Integer.class, name);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Cria a partição padrão, se ainda não existir.
+     */
+    public void createDefaultPartition() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF feedbacks DEFAULT");
+    }
+
+    /**
+     * Cria a partição do mês, se ainda não existir. Linhas do mês que já estejam na partição
+     * padrão são movidas para a nova (o PostgreSQL recusa criar a partição com elas lá).
+     * Chamar dentro de transação: a partição padrão fica desanexada durante a movimentação.
+     */
+    public void createPartition(YearMonth month) {
+        String partitionName = partitionName(month);
+        if (tableExists(partitionName)) {
+            return;
+        }
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        String inMonth = " WHERE created_at >= '" + from + "' AND created_at < '" + to + "'";
+        String create = "CREATE TABLE " + partitionName + " PARTITION OF feedbacks FOR VALUES FROM ('"
+                + from + "') TO ('" + to + "')";
+
+        Integer defaultRows = tableExists(DEFAULT_PARTITION)
+                ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM " + DEFAULT_PARTITION
+                        + inMonth + " LIMIT 1) t", Integer.class)
+                : Integer.valueOf(0);
+        if (defaultRows == null || defaultRows == 0) {
+            jdbcTemplate.execute(create);
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE feedbacks DETACH PARTITION " + DEFAULT_PARTITION);
+        jdbcTemplate.execute(create);
+        jdbcTemplate.execute("INSERT INTO " + partitionName + " SELECT * FROM " + DEFAULT_PARTITION + inMonth);
+        jdbcTemplate.execute("DELETE FROM " + DEFAULT_PARTITION + inMonth);
+        jdbcTemplate.execute("ALTER TABLE feedbacks ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+    }
+
+    /**
+     * Desanexa a partição. Os dados saem das consultas em feedbacks, mas a tabela continua existindo.
+     */
+    public void detachPartition(String partitionName) {
+        jdbcTemplate.execute("ALTER TABLE feedbacks DETACH PARTITION " + checked(partitionName));
+    }
+
+    public void dropPartition(String partitionName) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + checked(partitionName));
+    }
+
+    public long countRows(String partitionName) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + checked(partitionName), Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Percorre as linhas de uma partição (desanexada ou não) em ordem de criação.
+     * Chamar dentro de transação para o driver respeitar o fetch size.
+     */
+    public void scanPartition(String partitionName, int fetchSize, RowCallbackHandler handler) {
+        String sql = "SELECT id, student_name, student_email, course, rating, comment, urgent, created_at "
+                + "FROM " + checked(partitionName) + " ORDER BY created_at, id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    /**
+     * Os nomes entram no SQL como identificadores; só o formato gerado por partitionName é aceito.
+     */
+    private static String checked(String partitionName) {
+        if (!PARTITION_NAME.matcher(partitionName).matches()) {
+            throw new IllegalArgumentException("Nome de partição inválido: " + partitionName);
+        }
+        return partitionName;
+    }
+}
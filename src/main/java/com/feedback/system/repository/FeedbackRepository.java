@@ -1,12 +1,16 @@
 package com.feedback.system.repository;
 
+import com.feedback.system.dto.FeedbackResponse;
 import com.feedback.system.model.Feedback;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositório para operações de banco de dados com Feedback.
@@ -14,6 +18,21 @@ import java.util.List;
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, String> {
 
+    /**
+     * Expressão de construtor que projeta um Feedback direto no DTO de resposta,
+     * sem criar entidades gerenciadas no contexto de persistência.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.feedback.system.dto.FeedbackResponse("
+            + "f.id, f.studentName, f.studentEmail, f.course, f.rating, f.comment, f.urgent, f.createdAt) "
+            + "FROM Feedback f ";
+
+    /**
+     * Condição de keyset: itens estritamente anteriores ao cursor (createdAt, id).
+     */
+    String BEFORE_CURSOR = "f.createdAt <= :createdAt AND (f.createdAt < :createdAt OR f.id < :id) ";
+
+    String KEYSET_ORDER = "ORDER BY f.createdAt DESC, f.id DESC";
+
     /**
      * Busca todos os feedbacks marcados como urgentes.
      */
@@ -30,15 +49,15 @@ public interface FeedbackRepository extends JpaRepository<Feedback, String> {
     List<Feedback> findByStudentEmailOrderByCreatedAtDesc(String studentEmail);
 
     /**
-     * Busca feedbacks por curso.
+     * Calcula a média de avaliações de um curso (varredura do índice por course_id).
      */
-    List<Feedback> findByCourseOrderByCreatedAtDesc(String course);
+    @Query("SELECT AVG(f.rating) FROM Feedback f WHERE f.courseId = :courseId")
+    Double calculateAverageRatingByCourseId(Integer courseId);
 
     /**
-     * Calcula a média de avaliações de um curso.
+     * Conta os feedbacks de um curso.
      */
-    @Query("SELECT AVG(f.rating) FROM Feedback f WHERE f.course = :course")
-    Double calculateAverageRatingByCourse(String course);
+    long countByCourseId(Integer courseId);
 
     /**
      * Calcula a média geral de todas as avaliações.
@@ -55,4 +74,72 @@ public interface FeedbackRepository extends JpaRepository<Feedback, String> {
      * Busca os feedbacks mais recentes (últimos N).
      */
     List<Feedback> findTop10ByOrderByCreatedAtDesc();
+
+    /**
+     * Busca os 5 feedbacks mais recentes criados em [from, until).
+     */
+    List<Feedback> findTop5ByCreatedAtGreaterThanEqualAndCreatedAtLessThanOrderByCreatedAtDesc(LocalDateTime from,
+                                                                                              LocalDateTime until);
+
+    /**
+     * Lista todos os feedbacks como DTO de resposta.
+     */
+    @Query(RESPONSE_PROJECTION)
+    List<FeedbackResponse> findAllResponses();
+
+    /**
+     * Busca um feedback por ID como DTO de resposta.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE f.id = :id")
+    Optional<FeedbackResponse> findResponseById(String id);
+
+    /**
+     * Busca vários feedbacks por ID como DTO de resposta (ordem não garantida).
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE f.id IN :ids")
+    List<FeedbackResponse> findResponsesByIdIn(Collection<String> ids);
+
+    /**
+     * Lista os feedbacks de um aluno (mais recentes primeiro) como DTO de resposta.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE f.studentEmail = :studentEmail ORDER BY f.createdAt DESC")
+    List<FeedbackResponse> findResponsesByStudentEmail(String studentEmail);
+
+    /**
+     * Lista os feedbacks urgentes como DTO de resposta.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE f.urgent = true")
+    List<FeedbackResponse> findUrgentResponses();
+
+    /**
+     * Lista os feedbacks criados entre duas datas como DTO de resposta.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE f.createdAt BETWEEN :start AND :end")
+    List<FeedbackResponse> findResponsesByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Página de feedbacks criados a partir de {@code since}, anteriores ao cursor.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE f.createdAt >= :since AND " + BEFORE_CURSOR + KEYSET_ORDER)
+    List<FeedbackResponse> findPage(LocalDateTime since, LocalDateTime createdAt, String id, Pageable pageable);
+
+    /**
+     * Página de feedbacks de um aluno, anteriores ao cursor.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE f.studentEmail = :studentEmail AND " + BEFORE_CURSOR + KEYSET_ORDER)
+    List<FeedbackResponse> findPageByStudentEmail(String studentEmail, LocalDateTime createdAt, String id,
+                                                  Pageable pageable);
+
+    /**
+     * Página de feedbacks de um curso, anteriores ao cursor.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE f.courseId = :courseId AND " + BEFORE_CURSOR + KEYSET_ORDER)
+    List<FeedbackResponse> findPageByCourseId(Integer courseId, LocalDateTime createdAt, String id,
+                                              Pageable pageable);
+
+    /**
+     * Página de feedbacks urgentes, anteriores ao cursor.
+     */
+    @Query(RESPONSE_PROJECTION + "WHERE f.urgent = true AND " + BEFORE_CURSOR + KEYSET_ORDER)
+    List<FeedbackResponse> findUrgentPage(LocalDateTime createdAt, String id, Pageable pageable);
 }
@@ -0,0 +1,127 @@
+package com.feedback.system.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositório JDBC para atualização incremental dos rollups diários.
+ * Usa INSERT ... ON CONFLICT no PostgreSQL e MERGE nos demais bancos (H2).
+ */
+@Repository
+@RequiredArgsConstructor
+public class FeedbackRollupBatchRepository {
+
+    private static final String POSTGRES_UPSERT_SQL =
+            "INSERT INTO feedback_daily_rollups "
+                    + "(rollup_date, course, rating1, rating2, rating3, rating4, rating5, urgent_count, critical_count) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (rollup_date, course) DO UPDATE SET "
+                    + "rating1 = feedback_daily_rollups.rating1 + EXCLUDED.rating1, "
+                    + "rating2 = feedback_daily_rollups.rating2 + EXCLUDED.rating2, "
+                    + "rating3 = feedback_daily_rollups.rating3 + EXCLUDED.rating3, "
+                    + "rating4 = feedback_daily_rollups.rating4 + EXCLUDED.rating4, "
+                    + "rating5 = feedback_daily_rollups.rating5 + EXCLUDED.rating5, "
+                    + "urgent_count = feedback_daily_rollups.urgent_count + EXCLUDED.urgent_count, "
+                    + "critical_count = feedback_daily_rollups.critical_count + EXCLUDED.critical_count";
+
+    private static final String MERGE_UPSERT_SQL =
+            "MERGE INTO feedback_daily_rollups t USING (SELECT "
+                    + "CAST(? AS DATE) AS rollup_date, CAST(? AS VARCHAR(255)) AS course, "
+                    + "CAST(? AS BIGINT) AS rating1, CAST(? AS BIGINT) AS rating2, CAST(? AS BIGINT) AS rating3, "
+                    + "CAST(? AS BIGINT) AS rating4, CAST(? AS BIGINT) AS rating5, "
+                    + "CAST(? AS BIGINT) AS urgent_count, CAST(? AS BIGINT) AS critical_count) s "
+                    + "ON t.rollup_date = s.rollup_date AND t.course = s.course "
+                    + "WHEN MATCHED THEN UPDATE SET "
+                    + "rating1 = t.rating1 + s.rating1, rating2 = t.rating2 + s.rating2, "
+                    + "rating3 = t.rating3 + s.rating3, rating4 = t.rating4 + s.rating4, "
+                    + "rating5 = t.rating5 + s.rating5, urgent_count = t.urgent_count + s.urgent_count, "
+                    + "critical_count = t.critical_count + s.critical_count "
+                    + "WHEN NOT MATCHED THEN INSERT "
+                    + "(rollup_date, course, rating1, rating2, rating3, rating4, rating5, urgent_count, critical_count) "
+                    + "VALUES (s.rollup_date, s.course, s.rating1, s.rating2, s.rating3, s.rating4, s.rating5, "
+                    + "s.urgent_count, s.critical_count)";
+
+    /**
+     * Meses registrados em feedback_archives (desanexados ou arquivados) não estão mais
+     * em feedbacks: os rollups deles são a única fonte e ficam fora do recálculo.
+     */
+    private static final String NOT_ARCHIVED =
+            "NOT EXISTS (SELECT 1 FROM feedback_archives a WHERE a.month = TO_CHAR(%s, 'YYYY-MM'))";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM feedback_daily_rollups WHERE " + NOT_ARCHIVED.formatted("rollup_date");
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO feedback_daily_rollups "
+                    + "(rollup_date, course, rating1, rating2, rating3, rating4, rating5, urgent_count, critical_count) "
+                    + "SELECT CAST(created_at AS DATE), course, "
+                    + "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN urgent THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN rating <= 2 THEN 1 ELSE 0 END) "
+                    + "FROM feedbacks WHERE " + NOT_ARCHIVED.formatted("created_at") + " "
+                    + "GROUP BY CAST(created_at AS DATE), course";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Incremento de contadores de um par (dia, curso).
+     * O array de contadores segue a ordem: notas 1 a 5, urgentes, críticos.
+     */
+    public record Delta(LocalDate rollupDate, String course, long[] counters) {
+    }
+
+    /**
+     * Aplica os incrementos em um único batch JDBC.
+     * Deve ser chamado dentro da transação que grava os feedbacks.
+     */
+    public void upsertAll(List<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        String sql = isPostgres() ? POSTGRES_UPSERT_SQL : MERGE_UPSERT_SQL;
+        jdbcTemplate.batchUpdate(sql, deltas, deltas.size(), (ps, delta) -> {
+            ps.setDate(1, Date.valueOf(delta.rollupDate()));
+            ps.setString(2, delta.course());
+            long[] counters = delta.counters();
+            for (int i = 0; i < counters.length; i++) {
+                ps.setLong(3 + i, counters[i]);
+            }
+        });
+    }
+
+    /**
+     * Recalcula os rollups a partir da tabela de feedbacks, exceto os dos meses arquivados.
+     * No PostgreSQL a tabela de rollups fica bloqueada durante o recálculo,
+     * fazendo as inserções concorrentes aguardarem e serem contadas uma única vez.
+     */
+    public int rebuild() {
+        if (isPostgres()) {
+            jdbcTemplate.execute("LOCK TABLE feedback_daily_rollups IN EXCLUSIVE MODE");
+        }
+        jdbcTemplate.update(DELETE_SQL);
+        return jdbcTemplate.update(REBUILD_SQL);
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase().contains("postgres");
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package com.feedback.system.repository;
+
+import com.feedback.system.model.FeedbackRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositório para leitura dos rollups diários de feedback.
+ */
+@Repository
+public interface FeedbackRollupRepository extends JpaRepository<FeedbackRollup, FeedbackRollup.Key> {
+
+    /**
+     * Soma os rollups por curso em um intervalo de dias (inclusivo).
+     */
+    @Query("SELECT r.course AS course, SUM(r.rating1) AS rating1, SUM(r.rating2) AS rating2, "
+            + "SUM(r.rating3) AS rating3, SUM(r.rating4) AS rating4, SUM(r.rating5) AS rating5, "
+            + "SUM(r.urgentCount) AS urgentCount, SUM(r.criticalCount) AS criticalCount "
+            + "FROM FeedbackRollup r WHERE r.rollupDate BETWEEN :from AND :to GROUP BY r.course")
+    List<FeedbackRollupTotals> sumByCourseBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Soma todos os rollups por curso.
+     */
+    @Query("SELECT r.course AS course, SUM(r.rating1) AS rating1, SUM(r.rating2) AS rating2, "
+            + "SUM(r.rating3) AS rating3, SUM(r.rating4) AS rating4, SUM(r.rating5) AS rating5, "
+            + "SUM(r.urgentCount) AS urgentCount, SUM(r.criticalCount) AS criticalCount "
+            + "FROM FeedbackRollup r GROUP BY r.course")
+    List<FeedbackRollupTotals> sumByCourse();
+
+    /**
+     * Soma os rollups de um único curso.
+     */
+    @Query("SELECT r.course AS course, SUM(r.rating1) AS rating1, SUM(r.rating2) AS rating2, "
+            + "SUM(r.rating3) AS rating3, SUM(r.rating4) AS rating4, SUM(r.rating5) AS rating5, "
+            + "SUM(r.urgentCount) AS urgentCount, SUM(r.criticalCount) AS criticalCount "
+            + "FROM FeedbackRollup r WHERE r.course = :course GROUP BY r.course")
+    List<FeedbackRollupTotals> sumForCourse(String course);
+
+    /**
+     * Primeiro dia com feedbacks (inclui meses já arquivados).
+     */
+    @Query("SELECT MIN(r.rollupDate) FROM FeedbackRollup r")
+    LocalDate findFirstRollupDate();
+
+    /**
+     * Total de feedbacks por dia em um intervalo (inclusivo).
+     */
+    @Query("SELECT r.rollupDate AS day, SUM(r.rating1 + r.rating2 + r.rating3 + r.rating4 + r.rating5) AS total "
+            + "FROM FeedbackRollup r WHERE r.rollupDate BETWEEN :from AND :to GROUP BY r.rollupDate")
+    List<DailyFeedbackCount> countByDayBetween(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,23 @@
+package com.feedback.system.repository;
+
+/**
+ * Projeção com a soma dos contadores de rollup de um curso.
+ */
+public interface FeedbackRollupTotals {
+
+    String getCourse();
+
+    Long getRating1();
+
+    Long getRating2();
+
+    Long getRating3();
+
+    Long getRating4();
+
+    Long getRating5();
+
+    Long getUrgentCount();
+
+    Long getCriticalCount();
+}
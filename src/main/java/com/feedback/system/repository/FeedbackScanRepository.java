@@ -0,0 +1,163 @@
+package com.feedback.system.repository;
+
+import com.feedback.system.dto.FeedbackCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura sequencial da tabela de feedbacks via JDBC, linha a linha.
+ * Com fetch size definido o driver traz as linhas em blocos, sem carregar
+ * a tabela inteira em memória. No PostgreSQL isso exige transação
+ * (autocommit desligado): chame dentro de um TransactionTemplate.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FeedbackScanRepository {
+
+    private static final String SEARCH_SCAN_SQL =
+            "SELECT id, course, rating, urgent, comment FROM feedbacks ORDER BY created_at, id";
+
+    private static final String SKETCH_SCAN_SQL =
+            "SELECT created_at, student_email, course_id, course FROM feedbacks ORDER BY created_at";
+
+    private static final String SEGMENT_SCAN_SQL =
+            "SELECT course_id, course, rating, urgent, created_at FROM feedbacks "
+                    + "WHERE created_at >= ? AND created_at < ? ORDER BY created_at, id";
+
+    private static final String AGGREGATE_SQL =
+            "SELECT course_id, course, rating, urgent, COUNT(*) AS total FROM feedbacks "
+                    + "WHERE created_at >= ? AND created_at < ? GROUP BY course_id, course, rating, urgent";
+
+    private static final String COUNT_SQL =
+            "SELECT COUNT(*) FROM feedbacks WHERE created_at >= ? AND created_at < ?";
+
+    private static final String RANGE_COLUMNS = "SELECT created_at, course_id, course, rating, urgent FROM feedbacks ";
+
+    private static final String BOUNDARY_COLUMNS = "SELECT created_at, id FROM feedbacks ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Percorre os campos indexados pela busca textual, do mais antigo ao mais recente.
+     */
+    public void scanForSearch(int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SEARCH_SCAN_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    /**
+     * Percorre os campos usados nos sketches de analytics, em ordem de criação.
+     */
+    public void scanForSketches(int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SKETCH_SCAN_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    /**
+     * Percorre os campos gravados nos segmentos colunares, no intervalo [from, to).
+     */
+    public void scanForSegment(LocalDateTime from, LocalDateTime to, int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SEGMENT_SCAN_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            return statement;
+        }, handler);
+    }
+
+    /**
+     * Contagens agrupadas por (curso, nota, urgente) no intervalo [from, to).
+     * Cada linha traz course_id, course, rating, urgent e total.
+     */
+    public void aggregateBetween(LocalDateTime from, LocalDateTime to, RowCallbackHandler handler) {
+        jdbcTemplate.query(AGGREGATE_SQL, handler, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Limite superior (inclusivo) do bloco de chunkSize linhas que começa depois de after,
+     * em ordem (created_at, id), dentro de [from, to) e opcionalmente de um curso.
+     * Retorna null se restarem menos de chunkSize linhas. A consulta percorre só o índice.
+     */
+    public FeedbackCursor chunkBoundary(LocalDateTime from, LocalDateTime to, Integer courseId,
+                                        FeedbackCursor after, int chunkSize) {
+        List<Object> args = new ArrayList<>();
+        String sql = BOUNDARY_COLUMNS + rangeWhere(from, to, courseId, after, null, args)
+                + " ORDER BY created_at, id LIMIT 1 OFFSET ?";
+        args.add(chunkSize - 1);
+        List<FeedbackCursor> boundary = jdbcTemplate.query(sql, (rs, rowNum) -> new FeedbackCursor(
+                rs.getTimestamp("created_at").toLocalDateTime(), rs.getString("id")), args.toArray());
+        return boundary.isEmpty() ? null : boundary.get(0);
+    }
+
+    /**
+     * Percorre os campos agregados nos relatórios por intervalo, no bloco (after, upTo]
+     * de [from, to). after e upTo nulos indicam o início e o fim do intervalo.
+     */
+    public void scanRange(LocalDateTime from, LocalDateTime to, Integer courseId, FeedbackCursor after,
+                          FeedbackCursor upTo, int fetchSize, RowCallbackHandler handler) {
+        List<Object> args = new ArrayList<>();
+        String sql = RANGE_COLUMNS + rangeWhere(from, to, courseId, after, upTo, args);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, handler);
+    }
+
+    private static String rangeWhere(LocalDateTime from, LocalDateTime to, Integer courseId,
+                                     FeedbackCursor after, FeedbackCursor upTo, List<Object> args) {
+        StringBuilder where = new StringBuilder("WHERE created_at >= ? AND created_at < ?");
+        args.add(Timestamp.valueOf(from));
+        args.add(Timestamp.valueOf(to));
+        if (courseId != null) {
+            where.append(" AND course_id = ?");
+            args.add(courseId);
+        }
+        if (after != null) {
+            where.append(" AND created_at >= ? AND (created_at > ? OR id > ?)");
+            Timestamp createdAt = Timestamp.valueOf(after.createdAt());
+            args.add(createdAt);
+            args.add(createdAt);
+            args.add(after.id());
+        }
+        if (upTo != null) {
+            where.append(" AND created_at <= ? AND (created_at < ? OR id <= ?)");
+            Timestamp createdAt = Timestamp.valueOf(upTo.createdAt());
+            args.add(createdAt);
+            args.add(createdAt);
+            args.add(upTo.id());
+        }
+        return where.toString();
+    }
+
+    /**
+     * Quantidade de feedbacks no intervalo [from, to).
+     */
+    public long countBetween(LocalDateTime from, LocalDateTime to) {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.feedback.system.repository;
+
+import com.feedback.system.model.FeedbackSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório dos sketches diários de analytics.
+ */
+@Repository
+public interface FeedbackSketchRepository extends JpaRepository<FeedbackSketch, FeedbackSketch.Key> {
+
+    /**
+     * Busca um sketch com bloqueio de linha, para mesclar o delta de uma instância.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM FeedbackSketch s WHERE s.sketchDate = :sketchDate AND s.courseId = :courseId "
+            + "AND s.kind = :kind")
+    Optional<FeedbackSketch> findForUpdate(LocalDate sketchDate, int courseId, FeedbackSketch.Kind kind);
+
+    /**
+     * Sketches de um tipo em um intervalo de dias (inclusivo).
+     */
+    List<FeedbackSketch> findBySketchDateBetweenAndKind(LocalDate from, LocalDate to, FeedbackSketch.Kind kind);
+
+    /**
+     * Sketches de um tipo e curso em um intervalo de dias (inclusivo).
+     */
+    List<FeedbackSketch> findBySketchDateBetweenAndKindAndCourseId(LocalDate from, LocalDate to,
+                                                                   FeedbackSketch.Kind kind, int courseId);
+
+    @Modifying
+    @Query("DELETE FROM FeedbackSketch s WHERE s.sketchDate = :sketchDate")
+    void deleteBySketchDate(LocalDate sketchDate);
+}
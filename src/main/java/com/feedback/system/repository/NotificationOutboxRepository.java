@@ -0,0 +1,41 @@
+package com.feedback.system.repository;
+
+import com.feedback.system.model.NotificationOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório para operações de banco de dados com a outbox de notificações.
+ */
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, String> {
+
+    /**
+     * Busca e bloqueia as entradas pendentes cujo horário de tentativa já chegou.
+     * Linhas já bloqueadas por outra instância são ignoradas (SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.status = :status AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt")
+    List<NotificationOutbox> findDueForUpdate(NotificationOutbox.Status status, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Conta entradas por status.
+     */
+    long countByStatus(NotificationOutbox.Status status);
+
+    /**
+     * Busca a entrada mais antiga com o status informado.
+     */
+    Optional<NotificationOutbox> findFirstByStatusOrderByCreatedAtAsc(NotificationOutbox.Status status);
+}
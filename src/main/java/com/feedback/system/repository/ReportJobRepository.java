@@ -0,0 +1,57 @@
+package com.feedback.system.repository;
+
+import com.feedback.system.model.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Repositório dos jobs de relatório.
+ */
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, String> {
+
+    /**
+     * Job concluído mais recente para a mesma chave (tipo + período).
+     */
+    Optional<ReportJob> findFirstByDedupKeyAndStatusOrderByFinishedAtDesc(String dedupKey, ReportJob.Status status);
+
+    /**
+     * Passa o job de PENDING para RUNNING; retorna 0 se ele já foi encerrado (failStale).
+     */
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :running, j.startedAt = :now "
+            + "WHERE j.id = :id AND j.status = :pending")
+    int start(String id, ReportJob.Status pending, ReportJob.Status running, LocalDateTime now);
+
+    /**
+     * Grava o fim do job somente se ele ainda está no status esperado: um job já marcado
+     * como falho pela limpeza não é sobrescrito. Retorna 0 nesse caso.
+     */
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :status, j.result = :result, j.error = :error, j.finishedAt = :now "
+            + "WHERE j.id = :id AND j.status = :expected")
+    int finish(String id, ReportJob.Status expected, ReportJob.Status status, String result, String error,
+               LocalDateTime now);
+
+    /**
+     * Marca como falhos os jobs que não terminaram até o limite (instância reiniciada no meio da geração).
+     */
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :failed, j.error = :error, j.finishedAt = :now "
+            + "WHERE j.status IN :statuses AND j.createdAt < :before")
+    int failStale(Collection<ReportJob.Status> statuses, LocalDateTime before, ReportJob.Status failed,
+                  LocalDateTime now, String error);
+
+    /**
+     * Remove os jobs terminados antes do limite de retenção.
+     */
+    @Modifying
+    @Query("DELETE FROM ReportJob j WHERE j.finishedAt < :before")
+    int deleteFinishedBefore(LocalDateTime before);
+}
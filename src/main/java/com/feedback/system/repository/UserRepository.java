@@ -2,6 +2,7 @@ package com.feedback.system.repository;
 
 import com.feedback.system.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -21,4 +22,10 @@ public interface UserRepository extends JpaRepository<User, String> {
      * Verifica se existe um usuário com o email fornecido.
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Busca apenas o status (ativo/inativo) de um usuário.
+     */
+    @Query("SELECT u.active FROM User u WHERE u.email = :email")
+    Optional<Boolean> findActiveByEmail(String email);
 }
@@ -0,0 +1,334 @@
+package com.feedback.system.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória sobre os comentários dos feedbacks.
+ * Cada documento recebe um ordinal sequencial; as listas de postings guardam
+ * ordinais crescentes e a frequência do termo, e os metadados dos filtros
+ * (curso, nota, urgência) ficam em arrays paralelos indexados pelo ordinal.
+ * O texto do comentário não é mantido: os resultados são carregados do banco.
+ * Ranqueamento BM25 com semântica AND entre os termos da consulta.
+ */
+public class FeedbackSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> courseIds = new HashMap<>();
+    private final Map<Integer, String> nonUuidIds = new HashMap<>();
+
+    private long[] idHigh = new long[INITIAL_CAPACITY];
+    private long[] idLow = new long[INITIAL_CAPACITY];
+    private int[] courseOf = new int[INITIAL_CAPACITY];
+    private byte[] ratingOf = new byte[INITIAL_CAPACITY];
+    private int[] lengthOf = new int[INITIAL_CAPACITY];
+    private final BitSet urgent = new BitSet();
+
+    /**
+     * Tabela hash aberta id → ordinal + 1 (0 = vazio), usada para ignorar reindexações.
+     */
+    private int[] idSlots = new int[INITIAL_CAPACITY * 2];
+
+    private int size;
+    private long totalLength;
+
+    /**
+     * ID e pontuação de um documento encontrado.
+     */
+    public record Hit(String id, double score) {
+    }
+
+    /**
+     * Página de resultados e o total de documentos que satisfazem a consulta.
+     */
+    public record Result(long total, List<Hit> hits) {
+    }
+
+    /**
+     * Indexa um feedback. Retorna false se o ID já estava no índice.
+     */
+    public boolean add(String id, String course, int rating, boolean urgentFlag, String comment) {
+        List<String> terms = PortugueseAnalyzer.analyze(comment);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            long[] key = idKey(id);
+            if (findOrdinal(id, key) >= 0) {
+                return false;
+            }
+
+            int doc = size;
+            ensureCapacity(doc + 1);
+            idHigh[doc] = key[0];
+            idLow[doc] = key[1];
+            if (key[2] == 0) {
+                nonUuidIds.put(doc, id);
+            }
+            courseOf[doc] = courseIds.computeIfAbsent(course == null ? "" : course, c -> courseIds.size());
+            ratingOf[doc] = (byte) rating;
+            lengthOf[doc] = terms.size();
+            urgent.set(doc, urgentFlag);
+
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new PostingList()).append(doc, tf));
+
+            size = doc + 1;
+            totalLength += terms.size();
+            insertSlot(doc);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os documentos que contêm todos os termos da consulta e passam pelos filtros.
+     * Filtros nulos não restringem. Empates de pontuação favorecem o mais recente.
+     * O heap de ranqueamento guarda até offset + limit documentos, limitado aos candidatos existentes.
+     */
+    public Result search(List<String> queryTerms, String course, Integer rating, Boolean urgentFilter,
+                         int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset e limit não podem ser negativos");
+        }
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            List<Double> idfs = new ArrayList<>();
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    return new Result(0, List.of());
+                }
+                lists.add(list);
+            }
+            if (lists.isEmpty()) {
+                return new Result(0, List.of());
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            for (PostingList list : lists) {
+                idfs.add(Math.log(1 + (size - list.size + 0.5) / (list.size + 0.5)));
+            }
+
+            int courseId = -1;
+            if (course != null) {
+                Integer id = courseIds.get(course);
+                if (id == null) {
+                    return new Result(0, List.of());
+                }
+                courseId = id;
+            }
+
+            double averageLength = size == 0 ? 0 : (double) totalLength / size;
+            PostingList driver = lists.get(0);
+            // Nunca há mais resultados que documentos na menor lista de postings
+            int wanted = (int) Math.min((long) offset + limit, driver.size);
+            PriorityQueue<long[]> top = new PriorityQueue<>(Math.max(1, wanted), FeedbackSearchIndex::compareScored);
+            int[] cursors = new int[lists.size()];
+            long total = 0;
+
+            candidates:
+            for (int i = 0; i < driver.size; i++) {
+                int doc = driver.docs[i];
+                if ((courseId >= 0 && courseOf[doc] != courseId)
+                        || (rating != null && ratingOf[doc] != rating)
+                        || (urgentFilter != null && urgent.get(doc) != urgentFilter)) {
+                    continue;
+                }
+
+                double norm = K1 * (1 - B + B * lengthOf[doc] / averageLength);
+                double score = idfs.get(0) * bm25(driver.freqs[i], norm);
+                for (int t = 1; t < lists.size(); t++) {
+                    PostingList list = lists.get(t);
+                    int position = list.seek(doc, cursors[t]);
+                    cursors[t] = position;
+                    if (position >= list.size || list.docs[position] != doc) {
+                        continue candidates;
+                    }
+                    score += idfs.get(t) * bm25(list.freqs[position], norm);
+                }
+
+                total++;
+                if (wanted > 0) {
+                    long[] scored = {Double.doubleToLongBits(score), doc};
+                    if (top.size() < wanted) {
+                        top.add(scored);
+                    } else if (compareScored(scored, top.peek()) > 0) {
+                        top.poll();
+                        top.add(scored);
+                    }
+                }
+            }
+
+            List<long[]> ranked = new ArrayList<>(top);
+            ranked.sort((a, b) -> compareScored(b, a));
+            List<Hit> hits = new ArrayList<>();
+            for (int i = offset; i < ranked.size(); i++) {
+                int doc = (int) ranked.get(i)[1];
+                hits.add(new Hit(idOf(doc), Double.longBitsToDouble(ranked.get(i)[0])));
+            }
+            return new Result(total, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double bm25(int tf, double norm) {
+        return tf * (K1 + 1) / (tf + norm);
+    }
+
+    /**
+     * Ordena por pontuação e, no empate, pelo ordinal (mais recente é maior).
+     */
+    private static int compareScored(long[] a, long[] b) {
+        int byScore = Double.compare(Double.longBitsToDouble(a[0]), Double.longBitsToDouble(b[0]));
+        return byScore != 0 ? byScore : Long.compare(a[1], b[1]);
+    }
+
+    private String idOf(int doc) {
+        String raw = nonUuidIds.get(doc);
+        return raw != null ? raw : new UUID(idHigh[doc], idLow[doc]).toString();
+    }
+
+    /**
+     * IDs UUID ocupam 16 bytes; os demais guardam o hash e o texto em nonUuidIds.
+     * O terceiro elemento indica se o ID é um UUID (1) ou não (0).
+     */
+    private static long[] idKey(String id) {
+        try {
+            UUID uuid = UUID.fromString(id);
+            if (uuid.toString().equals(id)) {
+                return new long[]{uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), 1};
+            }
+        } catch (IllegalArgumentException e) {
+            // ID fora do formato UUID
+        }
+        return new long[]{id.hashCode(), 0, 0};
+    }
+
+    private static int slotHash(long high, long low) {
+        long h = high * 31 + low;
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        return (int) h;
+    }
+
+    private int findOrdinal(String id, long[] key) {
+        int mask = idSlots.length - 1;
+        for (int slot = slotHash(key[0], key[1]) & mask; idSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int doc = idSlots[slot] - 1;
+            if (idHigh[doc] == key[0] && idLow[doc] == key[1]
+                    && (key[2] == 1 ? !nonUuidIds.containsKey(doc) : id.equals(nonUuidIds.get(doc)))) {
+                return doc;
+            }
+        }
+        return -1;
+    }
+
+    private void insertSlot(int doc) {
+        if ((size * 2L) > idSlots.length) {
+            idSlots = new int[idSlots.length * 2];
+            for (int d = 0; d < size; d++) {
+                placeSlot(d);
+            }
+        } else {
+            placeSlot(doc);
+        }
+    }
+
+    private void placeSlot(int doc) {
+        int mask = idSlots.length - 1;
+        int slot = slotHash(idHigh[doc], idLow[doc]) & mask;
+        while (idSlots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        idSlots[slot] = doc + 1;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= idHigh.length) {
+            return;
+        }
+        int capacity = Math.max(required, idHigh.length + (idHigh.length >> 1));
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        courseOf = Arrays.copyOf(courseOf, capacity);
+        ratingOf = Arrays.copyOf(ratingOf, capacity);
+        lengthOf = Arrays.copyOf(lengthOf, capacity);
+    }
+
+    /**
+     * Lista de ordinais crescentes com a frequência do termo em cada documento.
+     */
+    private static final class PostingList {
+
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void append(int doc, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = tf;
+            size++;
+        }
+
+        /**
+         * Primeira posição a partir de {@code from} com ordinal >= doc (galloping + busca binária).
+         */
+        int seek(int doc, int from) {
+            int bound = 1;
+            while (from + bound < size && docs[from + bound] < doc) {
+                bound <<= 1;
+            }
+            int low = from + (bound >> 1);
+            int high = Math.min(from + bound, size - 1);
+            if (low > high || docs[high] < doc) {
+                return Math.min(from + bound, size);
+            }
+            int index = Arrays.binarySearch(docs, low, high + 1, doc);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
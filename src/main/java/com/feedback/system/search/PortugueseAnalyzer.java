@@ -0,0 +1,105 @@
+package com.feedback.system.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenização de textos em português para o índice de busca.
+ * Converte para minúsculas, remove acentos, descarta stopwords e reduz plurais
+ * comuns ao singular ("salas" → "sala", "avaliações" → "avaliacao"),
+ * de modo que consulta e comentário caiam no mesmo termo.
+ */
+public final class PortugueseAnalyzer {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "ao", "aos", "as", "ate", "com", "como", "da", "das", "de", "do", "dos", "e", "ela", "elas",
+            "ele", "eles", "em", "entre", "era", "essa", "esse", "esta", "estao", "este", "eu", "foi", "foram",
+            "ha", "isso", "isto", "ja", "la", "lhe", "mais", "mas", "me", "mesmo", "meu", "minha", "muito",
+            "na", "nas", "nem", "no", "nos", "nossa", "nosso", "num", "numa", "o", "os", "ou", "para", "pela",
+            "pelas", "pelo", "pelos", "por", "pra", "qual", "quando", "que", "quem", "se", "sem", "ser", "seu",
+            "sua", "so", "sao", "tambem", "te", "tem", "ter", "teu", "tu", "um", "uma", "umas", "uns", "voce",
+            "voces", "vos"
+    );
+
+    private PortugueseAnalyzer() {
+    }
+
+    /**
+     * Termos normalizados do texto, na ordem em que aparecem (com repetições).
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean letterOrDigit = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                addTerm(terms, folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Minúsculas e sem acentos ("Ausência" → "ausencia").
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    private static void addTerm(List<String> terms, String token) {
+        if (token.length() < MIN_TOKEN_LENGTH || STOPWORDS.contains(token)) {
+            return;
+        }
+        terms.add(singular(token));
+    }
+
+    /**
+     * Redução de plurais regulares (subconjunto da etapa de plural do RSLP).
+     */
+    static String singular(String token) {
+        int length = token.length();
+        if (length <= 3 || token.charAt(length - 1) != 's') {
+            return token;
+        }
+        if (token.endsWith("oes") || token.endsWith("aes")) {
+            return token.substring(0, length - 3) + "ao";
+        }
+        if (token.endsWith("ais")) {
+            return token.substring(0, length - 2) + "l";
+        }
+        if (token.endsWith("eis") && length > 4) {
+            return token.substring(0, length - 3) + "el";
+        }
+        if (token.endsWith("ns")) {
+            return token.substring(0, length - 2) + "m";
+        }
+        if (token.endsWith("res") || token.endsWith("zes") || token.endsWith("ses")) {
+            return token.substring(0, length - 2);
+        }
+        if (token.endsWith("is") || token.endsWith("us") || token.endsWith("ss")) {
+            return token;
+        }
+        return token.substring(0, length - 1);
+    }
+}
@@ -0,0 +1,159 @@
+package com.feedback.system.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Limite de envio de feedbacks (POST /api/feedbacks e /api/feedbacks/async) por usuário e
+ * por IP, com token bucket. As duas rotas gravam feedbacks e dividem os mesmos buckets.
+ * Roda na cadeia de segurança logo após o JwtAuthenticationFilter, antes de chegar ao
+ * FeedbackService: a requisição precisa de token nos dois limites (usuário autenticado e IP).
+ * Recusas respondem 429 com Retry-After e são contadas em security.rate_limit.rejected.
+ * Os limites são por instância. Atrás de proxy, configure server.forward-headers-strategy
+ * para que o IP seja o do cliente.
+ */
+@Component
+@RequiredArgsConstructor
+public class FeedbackRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SUBMISSION_PATHS = Set.of("/api/feedbacks", "/api/feedbacks/async");
+    private static final int STRIPES = 64;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.principal.capacity:10}")
+    private int principalCapacity;
+
+    @Value("${security.rate-limit.principal.refill-per-second:0.5}")
+    private double principalRefillPerSecond;
+
+    @Value("${security.rate-limit.ip.capacity:60}")
+    private int ipCapacity;
+
+    @Value("${security.rate-limit.ip.refill-per-second:5}")
+    private double ipRefillPerSecond;
+
+    @Value("${security.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private TokenBucketLimiter principalLimiter;
+    private TokenBucketLimiter ipLimiter;
+
+    private Counter principalRejected;
+    private Counter ipRejected;
+
+    @PostConstruct
+    void init() {
+        principalLimiter = new TokenBucketLimiter(principalCapacity, principalRefillPerSecond, maxKeys, STRIPES);
+        ipLimiter = new TokenBucketLimiter(ipCapacity, ipRefillPerSecond, maxKeys, STRIPES);
+
+        principalRejected = rejectedCounter("principal");
+        ipRejected = rejectedCounter("ip");
+        Gauge.builder("security.rate_limit.keys", principalLimiter, TokenBucketLimiter::size)
+                .description("Chaves com token bucket ativo")
+                .tag("limit", "principal")
+                .register(meterRegistry);
+        Gauge.builder("security.rate_limit.keys", ipLimiter, TokenBucketLimiter::size)
+                .description("Chaves com token bucket ativo")
+                .tag("limit", "ip")
+                .register(meterRegistry);
+    }
+
+    private Counter rejectedCounter(String limit) {
+        return Counter.builder("security.rate_limit.rejected")
+                .description("Envios de feedback recusados por limite de taxa")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !SUBMISSION_PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        long now = System.nanoTime();
+        String principal = principalName();
+
+        if (principal != null) {
+            long waitNanos = principalLimiter.tryAcquire(principal, now);
+            if (waitNanos > 0) {
+                principalRejected.increment();
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        long waitNanos = ipLimiter.tryAcquire(request.getRemoteAddr(), now);
+        if (waitNanos > 0) {
+            if (principal != null) {
+                principalLimiter.refund(principal, now);
+            }
+            ipRejected.increment();
+            reject(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static String principalName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = retryAfterSeconds(waitNanos);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Muitos feedbacks enviados, tente novamente em " + retryAfterSeconds + " s");
+    }
+
+    /**
+     * Segundos inteiros do Retry-After: a espera arredondada para cima, no mínimo 1.
+     */
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    /**
+     * Remove os buckets que já voltaram à capacidade máxima.
+     */
+    @Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        principalLimiter.evictIdle(now);
+        ipLimiter.evictIdle(now);
+    }
+}
@@ -1,30 +1,89 @@
 package com.feedback.system.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Filtro de autenticação JWT.
  * Intercepta todas as requisições e valida o token JWT.
+ * O token é verificado uma única vez e as authorities vêm da claim "role",
+ * sem consultar o banco; tokens já verificados ficam em um cache limitado
+ * e o status do usuário (ativo/inativo) é consultado no UserStatusCache.
  */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.token-cache.max-size:10000}")
+    private long tokenCacheMaxSize;
+
+    @Value("${security.token-cache.ttl-ms:300000}")
+    private long tokenCacheTtlMs;
+
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+
+    /**
+     * Resultado da verificação de um token: usuário, authorities e expiração.
+     */
+    private record VerifiedToken(User principal, long expiresAtMillis) {
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(tokenCacheTtlMs))
+                .build();
+
+        cachedTimer = authTimer("cached");
+        verifiedTimer = authTimer("verified");
+        rejectedTimer = authTimer("rejected");
+    }
+
+    private Timer authTimer(String result) {
+        return Timer.builder("security.jwt.authentication")
+                .description("Tempo de autenticação do token JWT por requisição")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -35,37 +94,69 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
-        // Extrai o token do header Authorization
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("Erro ao extrair username do token JWT", e);
-            }
+        // Extrai o token do header Authorization e configura o contexto de segurança
+        if (authorizationHeader != null && authorizationHeader.startsWith(BEARER_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            authenticate(authorizationHeader.substring(BEARER_PREFIX.length()), request);
         }
 
-        // Valida o token e configura o contexto de segurança
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authenticationToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                authenticationToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(String jwt, HttpServletRequest request) {
+        long start = System.nanoTime();
+        Timer timer = cachedTimer;
+
+        VerifiedToken token = verifiedTokens.getIfPresent(jwt);
+        if (token == null || token.isExpired()) {
+            timer = verifiedTimer;
+            token = verify(jwt);
+        }
+
+        if (token == null || !userStatusCache.isActive(token.principal().getUsername())) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        User principal = token.principal();
+        UsernamePasswordAuthenticationToken authenticationToken =
+                new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        principal.getAuthorities()
                 );
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-            }
+        authenticationToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Verifica assinatura e expiração em uma única passada e guarda o resultado.
+     * Retorna null para tokens inválidos, expirados ou sem role.
+     */
+    private VerifiedToken verify(String jwt) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Token JWT inválido: " + e.getMessage());
+            verifiedTokens.invalidate(jwt);
+            return null;
         }
 
-        filterChain.doFilter(request, response);
+        String role = claims.get("role", String.class);
+        if (claims.getSubject() == null || role == null || claims.getExpiration() == null) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+        VerifiedToken token = new VerifiedToken(
+                new User(claims.getSubject(), "", authorities),
+                claims.getExpiration().getTime()
+        );
+        verifiedTokens.put(jwt, token);
+        return token;
     }
 }
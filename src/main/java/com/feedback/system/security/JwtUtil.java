@@ -1,8 +1,14 @@
 package com.feedback.system.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -11,25 +17,53 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * Utilitário para geração e validação de tokens JWT.
  */
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret:minha-chave-secreta-super-segura-para-jwt-token-com-256-bits-minimo}")
     private String secret;
 
     @Value("${jwt.expiration:86400000}") // 24 horas em milissegundos
     private Long expiration;
 
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    private Timer parseValidTimer;
+    private Timer parseInvalidTimer;
+    private Timer generateTimer;
+
     /**
-     * Gera a chave secreta para assinatura do token.
+     * Gera a chave secreta e o parser uma única vez; ambos são thread-safe.
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+
+        parseValidTimer = parseTimer("valid");
+        parseInvalidTimer = parseTimer("invalid");
+        generateTimer = Timer.builder("security.jwt.generate")
+                .description("Tempo de geração e assinatura do token JWT")
+                .register(meterRegistry);
+    }
+
+    private Timer parseTimer(String outcome) {
+        return Timer.builder("security.jwt.parse")
+                .description("Tempo de parse e verificação de assinatura do token JWT")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     /**
@@ -54,15 +88,27 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifica assinatura e expiração do token e retorna suas claims.
+     * Lança JwtException se o token for inválido ou estiver expirado.
+     */
+    public Claims parseClaims(String token) {
+        long start = System.nanoTime();
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            parseValidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            parseInvalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
     /**
      * Extrai todas as claims do token.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseClaims(token);
     }
 
     /**
@@ -89,17 +135,27 @@ public class JwtUtil {
     return createToken(claims, userDetails.getUsername());
 }
 
+    /**
+     * Gera um token JWT a partir do email e da role do usuário.
+     */
+    public String generateToken(String username, String role) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", role);
+
+        return createToken(claims, username);
+    }
+
     /**
      * Cria o token JWT com as claims fornecidas.
      */
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+        return generateTimer.record(() -> Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
-                .compact();
+                .signWith(signingKey)
+                .compact());
     }
 
     /**
@@ -0,0 +1,11 @@
+package com.feedback.system.security;
+
+/**
+ * Lançada quando o executor de verificação de senhas está saturado.
+ */
+public class LoginCapacityExceededException extends RuntimeException {
+
+    public LoginCapacityExceededException() {
+        super("Muitos logins simultâneos, tente novamente em instantes");
+    }
+}
@@ -0,0 +1,120 @@
+package com.feedback.system.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verificação de senhas BCrypt em um executor dedicado e limitado.
+ * Mantém o custo de CPU dos logins fora das threads do Tomcat: com o executor
+ * e a fila cheios, o login é recusado em vez de disputar CPU com as demais rotas.
+ * O tempo máximo de espera só libera a thread da requisição: uma verificação que já
+ * começou roda até o fim (BCrypt não atende interrupção), mas ocupa uma das threads
+ * fixas do executor, então o trabalho abandonado não se acumula além do pool e da fila.
+ * Verificações canceladas ainda na fila são descartadas sem executar.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.login.threads:0}")
+    private int threads;
+
+    @Value("${security.login.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${security.login.max-wait-ms:5000}")
+    private long maxWaitMs;
+
+    private ThreadPoolExecutor executor;
+    private String dummyHash;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Hash usado quando o usuário não existe, para não revelar isso pelo tempo de resposta
+        dummyHash = passwordEncoder.encode("password-verifier-dummy");
+
+        Gauge.builder("security.login.queue.depth", executor, e -> e.getQueue().size())
+                .description("Verificações de senha aguardando execução")
+                .register(meterRegistry);
+        Gauge.builder("security.login.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Verificações de senha em execução")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("security.login.rejected")
+                .description("Logins recusados por falta de capacidade")
+                .register(meterRegistry);
+        log.info("Verificação de senhas com {} thread(s) e fila de {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Compara a senha informada com o hash armazenado.
+     * Com hash nulo (usuário inexistente) compara contra um hash fictício e retorna false.
+     *
+     * @throws LoginCapacityExceededException se o executor estiver saturado
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        String hash = encodedPassword != null ? encodedPassword : dummyHash;
+
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> passwordEncoder.matches(rawPassword, hash));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new LoginCapacityExceededException();
+        }
+
+        try {
+            boolean matches = result.get(maxWaitMs, TimeUnit.MILLISECONDS);
+            return matches && encodedPassword != null;
+        } catch (TimeoutException e) {
+            // Na fila: não executa mais e sai dela; em execução: termina na própria thread do pool
+            result.cancel(true);
+            executor.purge();
+            rejectedCounter.increment();
+            throw new LoginCapacityExceededException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verificação de senha interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro ao verificar senha", e.getCause());
+        }
+    }
+}
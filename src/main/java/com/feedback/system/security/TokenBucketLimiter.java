@@ -0,0 +1,264 @@
+package com.feedback.system.security;
+
+/**
+ * Token buckets por chave, em memória.
+ * As chaves são distribuídas em faixas (stripes), cada uma com o próprio lock e uma
+ * tabela de endereçamento aberto em arrays primitivos: consultar ou consumir um token
+ * não aloca objetos. Um bucket que já voltou à capacidade máxima é igual a um novo,
+ * então é removido sem perda na limpeza periódica. Com a faixa cheia, um ponteiro
+ * circular (algoritmo do relógio, LRU aproximado) escolhe a chave a sair: chaves usadas
+ * de novo desde a última passagem ganham outra volta, e chaves novas entram sem essa
+ * marca, então uma rajada de chaves de uso único sai antes dos clientes recorrentes.
+ * A remoção desloca as chaves seguintes da sondagem (backward shift), sem rehash.
+ */
+final class TokenBucketLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long refillNanos;
+    private final Stripe[] stripes;
+
+    /**
+     * @param capacity        rajada máxima (tokens)
+     * @param refillPerSecond tokens devolvidos por segundo
+     * @param maxKeys         chaves mantidas no total
+     * @param stripeCount     faixas de lock (potência de 2)
+     */
+    TokenBucketLimiter(int capacity, double refillPerSecond, int maxKeys, int stripeCount) {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("stripeCount deve ser potência de 2");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.refillNanos = (long) Math.ceil(capacity / tokensPerNano);
+        this.stripes = new Stripe[stripeCount];
+        int maxPerStripe = Math.max(1, maxKeys / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxPerStripe);
+        }
+    }
+
+    /**
+     * Consome um token da chave. Retorna 0 se consumiu ou, se não há token,
+     * quantos nanossegundos faltam para o próximo.
+     */
+    long tryAcquire(String key, long nowNanos) {
+        int hash = spread(key.hashCode());
+        Stripe stripe = stripes[hash & (stripes.length - 1)];
+        synchronized (stripe) {
+            int slot = stripe.findOrInsert(key, hash, nowNanos, this);
+            double tokens = refill(stripe, slot, nowNanos);
+            if (tokens >= 1.0) {
+                stripe.tokens[slot] = tokens - 1.0;
+                return 0;
+            }
+            stripe.tokens[slot] = tokens;
+            return (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+        }
+    }
+
+    /**
+     * Devolve um token consumido (requisição recusada por outro limite).
+     */
+    void refund(String key, long nowNanos) {
+        int hash = spread(key.hashCode());
+        Stripe stripe = stripes[hash & (stripes.length - 1)];
+        synchronized (stripe) {
+            int slot = stripe.find(key, hash);
+            if (slot >= 0) {
+                stripe.tokens[slot] = Math.min(capacity, refill(stripe, slot, nowNanos) + 1.0);
+            }
+        }
+    }
+
+    /**
+     * Remove os buckets que já voltaram à capacidade máxima. Retorna quantos saíram.
+     */
+    int evictIdle(long nowNanos) {
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                evicted += stripe.evictIdle(nowNanos, this);
+            }
+        }
+        return evicted;
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private double refill(Stripe stripe, int slot, long nowNanos) {
+        long elapsed = nowNanos - stripe.updatedAt[slot];
+        stripe.updatedAt[slot] = nowNanos;
+        if (elapsed <= 0) {
+            return stripe.tokens[slot];
+        }
+        return Math.min(capacity, stripe.tokens[slot] + elapsed * tokensPerNano);
+    }
+
+    private boolean isIdle(Stripe stripe, int slot, long nowNanos) {
+        return nowNanos - stripe.updatedAt[slot] >= refillNanos;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Tabela de uma faixa: sondagem linear, ocupação máxima de 50%.
+     * referenced marca as chaves usadas desde a última passagem do ponteiro (hand).
+     */
+    private static final class Stripe {
+
+        private final int maxKeys;
+        private String[] keys;
+        private int[] hashes;
+        private double[] tokens;
+        private long[] updatedAt;
+        private boolean[] referenced;
+        private int size;
+        private int hand;
+
+        Stripe(int maxKeys) {
+            this.maxKeys = maxKeys;
+            allocate(16);
+        }
+
+        private void allocate(int tableSize) {
+            keys = new String[tableSize];
+            hashes = new int[tableSize];
+            tokens = new double[tableSize];
+            updatedAt = new long[tableSize];
+            referenced = new boolean[tableSize];
+            hand = 0;
+        }
+
+        /**
+         * Posição inicial da sondagem (os bits baixos do hash escolhem a faixa).
+         */
+        private int home(int hash) {
+            return (hash >>> 8) & (keys.length - 1);
+        }
+
+        int find(String key, int hash) {
+            int mask = keys.length - 1;
+            for (int slot = home(hash); keys[slot] != null; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && keys[slot].equals(key)) {
+                    referenced[slot] = true;
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        int findOrInsert(String key, int hash, long nowNanos, TokenBucketLimiter limiter) {
+            int slot = find(key, hash);
+            if (slot >= 0) {
+                return slot;
+            }
+            if (size >= maxKeys) {
+                evictOne(nowNanos, limiter);
+            }
+            if ((size + 1) * 2 > keys.length) {
+                grow(keys.length * 2);
+            }
+            slot = put(key, hash, limiter.capacity, nowNanos, false);
+            size++;
+            return slot;
+        }
+
+        private int put(String key, int hash, double bucketTokens, long bucketUpdatedAt, boolean bucketReferenced) {
+            int mask = keys.length - 1;
+            int slot = home(hash);
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            hashes[slot] = hash;
+            tokens[slot] = bucketTokens;
+            updatedAt[slot] = bucketUpdatedAt;
+            referenced[slot] = bucketReferenced;
+            return slot;
+        }
+
+        /**
+         * Algoritmo do relógio: avança o ponteiro desmarcando as chaves usadas e remove a
+         * primeira sem marca (ou já ociosa). Com ocupação de até 50%, no máximo duas voltas.
+         */
+        private void evictOne(long nowNanos, TokenBucketLimiter limiter) {
+            int mask = keys.length - 1;
+            while (size > 0) {
+                if (keys[hand] != null) {
+                    if (!referenced[hand] || limiter.isIdle(this, hand, nowNanos)) {
+                        // O ponteiro fica: a posição recebe a próxima chave deslocada
+                        remove(hand);
+                        return;
+                    }
+                    referenced[hand] = false;
+                }
+                hand = (hand + 1) & mask;
+            }
+        }
+
+        int evictIdle(long nowNanos, TokenBucketLimiter limiter) {
+            int evicted = 0;
+            int slot = 0;
+            while (slot < keys.length) {
+                if (keys[slot] != null && limiter.isIdle(this, slot, nowNanos)) {
+                    // A posição pode receber uma chave deslocada: é examinada de novo
+                    remove(slot);
+                    evicted++;
+                } else {
+                    slot++;
+                }
+            }
+            return evicted;
+        }
+
+        /**
+         * Remove a chave da posição e puxa para o buraco as chaves seguintes da mesma
+         * sequência de sondagem que só seriam encontradas passando por ele.
+         */
+        private void remove(int slot) {
+            int mask = keys.length - 1;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+                int distanceFromHome = (next - home(hashes[next])) & mask;
+                if (distanceFromHome >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    hashes[hole] = hashes[next];
+                    tokens[hole] = tokens[next];
+                    updatedAt[hole] = updatedAt[next];
+                    referenced[hole] = referenced[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = null;
+            referenced[hole] = false;
+            size--;
+        }
+
+        private void grow(int tableSize) {
+            String[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            double[] oldTokens = tokens;
+            long[] oldUpdatedAt = updatedAt;
+            boolean[] oldReferenced = referenced;
+            allocate(tableSize);
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != null) {
+                    put(oldKeys[slot], oldHashes[slot], oldTokens[slot], oldUpdatedAt[slot], oldReferenced[slot]);
+                }
+            }
+        }
+    }
+}
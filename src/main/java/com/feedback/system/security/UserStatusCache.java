@@ -0,0 +1,60 @@
+package com.feedback.system.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.feedback.system.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache de curta duração do status (ativo/inativo) dos usuários.
+ * Evita uma consulta ao banco por requisição autenticada e ainda garante
+ * que uma desativação tenha efeito em no máximo um TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${security.user-status.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${security.user-status.max-size:10000}")
+    private long maxSize;
+
+    private LoadingCache<String, Boolean> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build(email -> userRepository.findActiveByEmail(email).orElse(false));
+    }
+
+    /**
+     * Indica se o usuário existe e está ativo.
+     */
+    public boolean isActive(String email) {
+        return Boolean.TRUE.equals(cache.get(email));
+    }
+
+    /**
+     * Registra um status já conhecido (ex.: usuário recém-autenticado).
+     */
+    public void put(String email, boolean active) {
+        cache.put(email, active);
+    }
+
+    /**
+     * Descarta o status em cache de um usuário (ex.: após alterá-lo).
+     */
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+}
@@ -0,0 +1,129 @@
+package com.feedback.system.segment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Segmento colunar imutável com os feedbacks de um dia fechado.
+ * Layout do arquivo (big-endian):
+ * <pre>
+ *  0  int   magic "FBSG"
+ *  4  int   versão
+ *  8  long  dia (epoch day)
+ * 16  int   quantidade de linhas (n)
+ * 20  int   reservado
+ * 24  byte[n]  nota
+ *     byte[n]  urgente (0/1)
+ *     int[n]   course_id      (alinhado em 4 bytes)
+ *     long[n]  created_at em epoch seconds UTC (alinhado em 8 bytes)
+ * </pre>
+ * A leitura é feita direto no arquivo mapeado em memória, sem copiar as colunas para o heap.
+ */
+public final class FeedbackSegment {
+
+    private static final int MAGIC = 0x46425347;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+
+    private final LocalDate day;
+    private final int rows;
+    private final ByteBuffer buffer;
+    private final int ratingOffset;
+    private final int urgentOffset;
+    private final int courseOffset;
+    private final int createdAtOffset;
+
+    private FeedbackSegment(LocalDate day, int rows, ByteBuffer buffer) {
+        this.day = day;
+        this.rows = rows;
+        this.buffer = buffer;
+        this.ratingOffset = HEADER_SIZE;
+        this.urgentOffset = ratingOffset + rows;
+        this.courseOffset = align(urgentOffset + rows, Integer.BYTES);
+        this.createdAtOffset = align(courseOffset + rows * Integer.BYTES, Long.BYTES);
+    }
+
+    /**
+     * Grava o segmento em um arquivo temporário e o move para {@code target} de forma atômica.
+     */
+    public static void write(Path target, LocalDate day, int rows, byte[] ratings, boolean[] urgent,
+                             int[] courseIds, long[] createdAtEpochSeconds) throws IOException {
+        int urgentOffset = HEADER_SIZE + rows;
+        int courseOffset = align(urgentOffset + rows, Integer.BYTES);
+        int createdAtOffset = align(courseOffset + rows * Integer.BYTES, Long.BYTES);
+        ByteBuffer out = ByteBuffer.allocate(createdAtOffset + rows * Long.BYTES);
+
+        out.putInt(MAGIC).putInt(VERSION).putLong(day.toEpochDay()).putInt(rows).putInt(0);
+        out.put(ratings, 0, rows);
+        for (int i = 0; i < rows; i++) {
+            out.put(urgent[i] ? (byte) 1 : 0);
+        }
+        out.position(courseOffset);
+        for (int i = 0; i < rows; i++) {
+            out.putInt(courseIds[i]);
+        }
+        out.position(createdAtOffset);
+        for (int i = 0; i < rows; i++) {
+            out.putLong(createdAtEpochSeconds[i]);
+        }
+        out.flip();
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Mapeia um segmento em memória (somente leitura).
+     */
+    public static FeedbackSegment map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Segmento inválido: " + path);
+            }
+            return new FeedbackSegment(LocalDate.ofEpochDay(buffer.getLong(8)), buffer.getInt(16), buffer);
+        }
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int rating(int row) {
+        return buffer.get(ratingOffset + row);
+    }
+
+    public boolean urgent(int row) {
+        return buffer.get(urgentOffset + row) != 0;
+    }
+
+    public int courseId(int row) {
+        return buffer.getInt(courseOffset + row * Integer.BYTES);
+    }
+
+    public long createdAtEpochSecond(int row) {
+        return buffer.getLong(createdAtOffset + row * Long.BYTES);
+    }
+
+    private static int align(int offset, int alignment) {
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+}
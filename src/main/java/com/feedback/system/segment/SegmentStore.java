@@ -0,0 +1,73 @@
+package com.feedback.system.segment;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diretório local dos segmentos diários (um arquivo yyyy-MM-dd.seg por dia fechado).
+ * Cada segmento é mapeado uma única vez e o mapeamento é reaproveitado pelas consultas.
+ * Ao regravar um dia, o arquivo novo substitui o antigo por rename atômico;
+ * leituras em andamento continuam no mapeamento anterior.
+ */
+@Component
+@Slf4j
+public class SegmentStore {
+
+    private static final String EXTENSION = ".seg";
+
+    private final Path directory;
+    private final Map<LocalDate, FeedbackSegment> mapped = new ConcurrentHashMap<>();
+
+    public SegmentStore(@Value("${feedback.segments.directory:./segments}") String directory) throws IOException {
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        Files.createDirectories(this.directory);
+    }
+
+    /**
+     * Segmento do dia, ou null se o dia ainda não foi selado.
+     */
+    public FeedbackSegment get(LocalDate day) {
+        FeedbackSegment segment = mapped.get(day);
+        if (segment != null) {
+            return segment;
+        }
+        Path path = pathOf(day);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        return mapped.computeIfAbsent(day, key -> {
+            try {
+                return FeedbackSegment.map(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Grava (ou regrava) o segmento do dia e já o deixa mapeado.
+     */
+    public void write(LocalDate day, int rows, byte[] ratings, boolean[] urgent, int[] courseIds,
+                      long[] createdAtEpochSeconds) throws IOException {
+        Path path = pathOf(day);
+        FeedbackSegment.write(path, day, rows, ratings, urgent, courseIds, createdAtEpochSeconds);
+        mapped.put(day, FeedbackSegment.map(path));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private Path pathOf(LocalDate day) {
+        return directory.resolve(day + EXTENSION);
+    }
+}
@@ -5,13 +5,11 @@ import com.feedback.system.dto.LoginRequest;
 import com.feedback.system.model.User;
 import com.feedback.system.repository.UserRepository;
 import com.feedback.system.security.JwtUtil;
+import com.feedback.system.security.PasswordVerifier;
+import com.feedback.system.security.UserStatusCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -23,35 +21,33 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class AuthService {
 
-    private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
+    private final UserStatusCache userStatusCache;
 
     /**
      * Realiza login e retorna token JWT.
+     * O usuário é carregado uma única vez e a senha é verificada no PasswordVerifier.
      */
     public AuthResponse login(LoginRequest request) {
         log.info("Tentativa de login para: {}", request.getEmail());
 
-        // Autentica o usuário
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
 
-        // Carrega os detalhes do usuário
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getEmail());
+        // Usuário inexistente também passa pela verificação, para manter o mesmo tempo de resposta
+        boolean passwordMatches = passwordVerifier.matches(
+                request.getPassword(),
+                user != null ? user.getPassword() : null
+        );
+        if (!passwordMatches || !user.isActive()) {
+            throw new BadCredentialsException("Credenciais inválidas");
+        }
 
         // Gera o token JWT
-        String token = jwtUtil.generateToken(userDetails);
-
-        // Busca informações adicionais do usuário
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        userStatusCache.put(user.getEmail(), true);
 
         log.info("Login realizado com sucesso para: {}", request.getEmail());
 
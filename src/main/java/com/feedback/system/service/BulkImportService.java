@@ -0,0 +1,294 @@
+package com.feedback.system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.feedback.system.dto.BulkFeedbackRecord;
+import com.feedback.system.dto.BulkImportResponse;
+import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.event.FeedbackCreatedEvent;
+import com.feedback.system.model.Feedback;
+import com.feedback.system.repository.FeedbackArchiveRepository;
+import com.feedback.system.repository.FeedbackBatchRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Serviço de importação em massa de feedbacks a partir de NDJSON.
+ * Lê o corpo linha a linha (opcionalmente gzip), valida cada registro e grava
+ * em lotes JDBC. O consumo de memória depende apenas do tamanho do lote e do
+ * limite de erros reportados, não do tamanho do arquivo. Linhas acima de
+ * feedback.bulk.max-line-length caracteres são recusadas sem serem acumuladas.
+ * Registros de meses arquivados são recusados: os rollups desses meses já contam
+ * os feedbacks arquivados e seriam somados de novo.
+ */
+@Service
+@Slf4j
+public class BulkImportService {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final FeedbackBatchRepository feedbackBatchRepository;
+    private final FeedbackRollupService feedbackRollupService;
+    private final CourseCatalog courseCatalog;
+    private final FeedbackArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader recordReader;
+
+    @Value("${feedback.bulk.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${feedback.bulk.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${feedback.bulk.max-line-length:16384}")
+    private int maxLineLength;
+
+    public BulkImportService(
+            FeedbackBatchRepository feedbackBatchRepository,
+            FeedbackRollupService feedbackRollupService,
+            CourseCatalog courseCatalog,
+            FeedbackArchiveRepository archiveRepository,
+            TransactionTemplate transactionTemplate,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper
+    ) {
+        this.feedbackBatchRepository = feedbackBatchRepository;
+        this.feedbackRollupService = feedbackRollupService;
+        this.courseCatalog = courseCatalog;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.recordReader = objectMapper.readerFor(BulkFeedbackRecord.class);
+    }
+
+    /**
+     * Importa um fluxo NDJSON (um FeedbackRequest por linha).
+     * Conteúdo gzip é detectado automaticamente pelos bytes iniciais.
+     */
+    public BulkImportResponse importNdjson(InputStream body) throws IOException {
+        ImportState state = new ImportState();
+        archiveRepository.findAll().forEach(archive -> state.archivedMonths.add(archive.getMonth()));
+
+        try (Reader input = new InputStreamReader(decompressIfNeeded(body), StandardCharsets.UTF_8)) {
+            LineReader reader = new LineReader(input, maxLineLength);
+
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.next()) != null) {
+                lineNumber++;
+                if (reader.tooLong()) {
+                    state.totalLines++;
+                    state.reject(lineNumber, List.of("Linha excede o limite de " + maxLineLength + " caracteres"));
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                state.totalLines++;
+
+                Feedback feedback = parseLine(line, lineNumber, state);
+                if (feedback == null) {
+                    continue;
+                }
+                state.batch.add(feedback);
+                state.batchLines.add(lineNumber);
+
+                if (state.batch.size() >= batchSize) {
+                    flush(state);
+                }
+            }
+            flush(state);
+        }
+
+        log.info("Importação em massa concluída. Linhas: {}, importadas: {}, rejeitadas: {}",
+                state.totalLines, state.imported, state.rejected);
+
+        return new BulkImportResponse(state.totalLines, state.imported, state.rejected,
+                state.errors, state.errorsTruncated);
+    }
+
+    private Feedback parseLine(String line, long lineNumber, ImportState state) {
+        BulkFeedbackRecord record;
+        try {
+            record = recordReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            state.reject(lineNumber, List.of("JSON inválido: " + e.getOriginalMessage()));
+            return null;
+        } catch (IOException e) {
+            state.reject(lineNumber, List.of("Erro de leitura: " + e.getMessage()));
+            return null;
+        }
+
+        Set<ConstraintViolation<BulkFeedbackRecord>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            List<String> messages = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .toList();
+            state.reject(lineNumber, messages);
+            return null;
+        }
+
+        Feedback feedback = record.toEntity();
+        LocalDateTime now = LocalDateTime.now();
+        feedback.setId(UUID.randomUUID().toString());
+        if (feedback.getCreatedAt() == null) {
+            feedback.setCreatedAt(now);
+        } else if (state.archivedMonths.contains(YearMonth.from(feedback.getCreatedAt()).toString())) {
+            state.reject(lineNumber, List.of("createdAt: mês já arquivado"));
+            return null;
+        }
+        // Só linhas aceitas chegam aqui: uma linha recusada não cria curso no catálogo
+        courseCatalog.assign(feedback);
+        feedback.setUpdatedAt(now);
+        return feedback;
+    }
+
+    private void flush(ImportState state) {
+        if (state.batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                feedbackBatchRepository.insertAll(state.batch);
+                feedbackRollupService.recordAll(state.batch);
+                eventPublisher.publishEvent(new FeedbackCreatedEvent(
+                        state.batch.stream().map(FeedbackResponse::fromEntity).toList()));
+            });
+            state.imported += state.batch.size();
+        } catch (Exception e) {
+            log.error("Erro ao gravar lote da importação em massa ({} registros)", state.batch.size(), e);
+            List<String> messages = List.of("Falha ao gravar lote: " + e.getMessage());
+            for (Long lineNumber : state.batchLines) {
+                state.reject(lineNumber, messages);
+            }
+        }
+        state.batch.clear();
+        state.batchLines.clear();
+    }
+
+    private static InputStream decompressIfNeeded(InputStream body) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(body, READ_BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+
+        boolean gzip = first == (GZIPInputStream.GZIP_MAGIC & 0xff)
+                && second == ((GZIPInputStream.GZIP_MAGIC >> 8) & 0xff);
+        return gzip ? new GZIPInputStream(buffered, READ_BUFFER_SIZE) : buffered;
+    }
+
+    /**
+     * Leitor de linhas (terminadas em \n ou \r\n) com tamanho máximo.
+     * De uma linha longa demais guarda só o início; o restante é descartado na leitura.
+     */
+    private static final class LineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[READ_BUFFER_SIZE];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean tooLong;
+
+        private LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Próxima linha, ou null no fim do fluxo.
+         */
+        private String next() throws IOException {
+            line.setLength(0);
+            boolean overflow = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        if (!read) {
+                            return null;
+                        }
+                        break;
+                    }
+                }
+                read = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                // Um caractere além do limite para acomodar o \r de \r\n
+                int length = Math.min(position - start, maxLength + 1 - line.length());
+                overflow |= length < position - start;
+                line.append(buffer, start, length);
+                if (position < limit) {
+                    position++;
+                    break;
+                }
+            }
+            if (!overflow && !line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            tooLong = overflow || line.length() > maxLength;
+            return line.toString();
+        }
+
+        /**
+         * Se a última linha lida passou do limite.
+         */
+        private boolean tooLong() {
+            return tooLong;
+        }
+    }
+
+    /**
+     * Estado mutável de uma importação em andamento.
+     */
+    private final class ImportState {
+        private final List<Feedback> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final List<BulkImportResponse.LineError> errors = new ArrayList<>();
+        private final Set<String> archivedMonths = new HashSet<>();
+        private long totalLines;
+        private long imported;
+        private long rejected;
+        private boolean errorsTruncated;
+
+        private void reject(long lineNumber, List<String> messages) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BulkImportResponse.LineError(lineNumber, messages));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
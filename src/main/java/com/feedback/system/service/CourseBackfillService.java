@@ -0,0 +1,75 @@
+package com.feedback.system.service;
+
+import com.feedback.system.config.ExecutionMode;
+import com.feedback.system.repository.CourseBackfillRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migração de dados para o catálogo de cursos.
+ * Na inicialização, cadastra os cursos dos feedbacks antigos e preenche course_id
+ * em blocos, cada um com seu commit, sem bloquear a tabela inteira.
+ * É idempotente: com tudo preenchido, termina na primeira consulta.
+ * Cada bloco gravado avança a DataVersion.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseBackfillService {
+
+    private final CourseBackfillRepository courseBackfillRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutionMode executionMode;
+    private final DataVersion dataVersion;
+
+    @Value("${feedback.courses.backfill-chunk-size:5000}")
+    private int chunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        executionMode.threadFactory("course-backfill-").newThread(this::backfill).start();
+    }
+
+    /**
+     * Executa o backfill até não restar feedback sem course_id. Retorna as linhas atualizadas.
+     */
+    public long backfill() {
+        try {
+            insertMissingCourses();
+
+            long updated = 0;
+            int chunk;
+            do {
+                chunk = transactionTemplate.execute(status -> courseBackfillRepository.backfillChunk(chunkSize));
+                updated += chunk;
+                if (chunk > 0) {
+                    // Listagens por curso passam a incluir o bloco: invalida os ETags
+                    dataVersion.advance();
+                }
+            } while (chunk > 0);
+
+            if (updated > 0) {
+                log.info("Backfill do catálogo de cursos concluído: {} feedbacks atualizados", updated);
+            }
+            return updated;
+        } catch (Exception e) {
+            log.error("Erro no backfill do catálogo de cursos", e);
+            return 0;
+        }
+    }
+
+    private void insertMissingCourses() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> courseBackfillRepository.insertMissingCourses());
+        } catch (DataIntegrityViolationException e) {
+            // Curso criado em paralelo pela ingestão; a segunda tentativa só insere os que faltam
+            transactionTemplate.executeWithoutResult(status -> courseBackfillRepository.insertMissingCourses());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.feedback.system.service;
+
+import com.feedback.system.model.Course;
+import com.feedback.system.model.Feedback;
+import com.feedback.system.repository.CourseInternRepository;
+import com.feedback.system.repository.CourseRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catálogo de cursos com mapa de internação nome → ID em memória.
+ * Na ingestão, o ID do curso sai do mapa sem consultar o banco; só um curso
+ * ainda desconhecido pela instância consulta ou cria a linha em courses, na mesma
+ * transação do feedback. A inserção roda sob um savepoint: se outra transação criou o
+ * mesmo nome em paralelo, o savepoint é desfeito e o ID é relido, sem perder a transação.
+ * Um curso criado só entra no mapa após o commit (se o feedback for revertido, o curso também é).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseCatalog {
+
+    private final CourseRepository courseRepository;
+    private final CourseInternRepository courseInternRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        courseRepository.findAll().forEach(this::remember);
+        log.info("Catálogo de cursos carregado: {} cursos", idsByName.size());
+
+        Gauge.builder("feedback.courses", idsByName, Map::size)
+                .description("Cursos no catálogo em memória")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Preenche o courseId do feedback a partir do nome do curso.
+     */
+    public void assign(Feedback feedback) {
+        feedback.setCourseId(idFor(feedback.getCourse()));
+    }
+
+    /**
+     * ID do curso, criando-o no catálogo na primeira ocorrência do nome
+     * (na transação em andamento, se houver).
+     */
+    public Integer idFor(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        Optional<Integer> existing = courseInternRepository.findId(name);
+        if (existing.isPresent()) {
+            remember(existing.get(), name);
+            return existing.get();
+        }
+        id = insert(name);
+        rememberAfterCommit(id, name);
+        return id;
+    }
+
+    /**
+     * ID do curso só pelo que já existe (mapa ou banco), sem criar.
+     * Para leituras que não devem gravar, como as varreduras de relatórios.
+     */
+    public Optional<Integer> findId(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<Integer> existing = courseInternRepository.findId(name);
+        existing.ifPresent(found -> remember(found, name));
+        return existing;
+    }
+
+    /**
+     * Nome do curso pelo ID, consultando o banco se a instância ainda não o conhece.
+     */
+    public Optional<String> nameOf(Integer id) {
+        String name = namesById.get(id);
+        if (name != null) {
+            return Optional.of(name);
+        }
+        Optional<Course> course = courseRepository.findById(id);
+        course.ifPresent(this::remember);
+        return course.map(Course::getName);
+    }
+
+    /**
+     * Todos os cursos do catálogo, em ordem alfabética.
+     */
+    public List<Course> listAll() {
+        List<Course> courses = courseRepository.findAll(Sort.by("name"));
+        courses.forEach(this::remember);
+        return courses;
+    }
+
+    private Integer insert(String name) {
+        try {
+            return courseInternRepository.insert(name);
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância ou thread criou o mesmo curso em paralelo; o savepoint já foi desfeito
+            return courseInternRepository.findId(name).orElseThrow(() -> e);
+        }
+    }
+
+    private void rememberAfterCommit(Integer id, String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(id, name);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(id, name);
+            }
+        });
+    }
+
+    private void remember(Course course) {
+        remember(course.getId(), course.getName());
+    }
+
+    private void remember(Integer id, String name) {
+        idsByName.put(name, id);
+        namesById.put(id, name);
+    }
+}
@@ -0,0 +1,56 @@
+package com.feedback.system.service;
+
+import com.feedback.system.event.FeedbackCreatedEvent;
+import com.feedback.system.event.FeedbackPartitionDetachedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão monotônica dos dados de feedback, usada para ETags de listagens e relatórios.
+ * Avança após o commit de novos feedbacks, após o recálculo dos rollups, a cada bloco
+ * do backfill de cursos, ao desanexar uma partição mensal e quando a reconciliação das estatísticas encontra gravações
+ * de outras instâncias.
+ * O epoch da instância entra no ETag para que um restart nunca repita uma versão.
+ */
+@Component
+public class DataVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Avança a versão. Deve ser chamado somente depois que a alteração estiver visível no banco.
+     */
+    public void advance() {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onFeedbackCreated(FeedbackCreatedEvent event) {
+        advance();
+    }
+
+    @EventListener
+    public void onPartitionDetached(FeedbackPartitionDetachedEvent event) {
+        advance();
+    }
+
+    /**
+     * ETag forte para um recurso na versão atual, distinto para cada combinação de parâmetros.
+     */
+    public String etag(String resource, Object... params) {
+        String key = resource + Arrays.deepToString(params);
+        String paramsHash = DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8));
+        return "\"" + epoch + "-" + version.get() + "-" + paramsHash + "\"";
+    }
+}
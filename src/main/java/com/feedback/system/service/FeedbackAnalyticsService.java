@@ -0,0 +1,418 @@
+package com.feedback.system.service;
+
+import com.feedback.system.analytics.CountMinTopK;
+import com.feedback.system.analytics.HyperLogLog;
+import com.feedback.system.config.ExecutionMode;
+import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.event.FeedbackCreatedEvent;
+import com.feedback.system.model.FeedbackSketch;
+import com.feedback.system.repository.FeedbackRollupRepository;
+import com.feedback.system.repository.FeedbackRollupTotals;
+import com.feedback.system.repository.FeedbackScanRepository;
+import com.feedback.system.repository.FeedbackSketchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Analytics aproximados com sketches mescláveis por dia:
+ * alunos distintos por curso (HyperLogLog) e cursos com mais feedbacks (count-min + top-K).
+ * Os percentis de nota usam a distribuição exata dos rollups diários: como as notas
+ * vão de 1 a 5, o histograma de 5 contadores já é um sketch de quantis sem erro.
+ * Cada instância acumula em memória os sketches dos feedbacks confirmados e os mescla
+ * periodicamente nos sketches persistidos (máximo por registrador no HLL, soma no count-min),
+ * o que mantém o resultado correto com várias instâncias. O delta em memória nunca é
+ * alterado pela mesclagem, então um ciclo que falha pode ser repetido sem contar duas vezes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedbackAnalyticsService {
+
+    private static final double[] PERCENTILES = {0.10, 0.25, 0.50, 0.75, 0.90};
+
+    /**
+     * Tentativas de persistir um ciclo; a segunda cobre o sketch criado ao mesmo tempo por outra instância.
+     */
+    private static final int FLUSH_ATTEMPTS = 2;
+
+    private final FeedbackSketchRepository sketchRepository;
+    private final FeedbackRollupRepository rollupRepository;
+    private final FeedbackScanRepository feedbackScanRepository;
+    private final CourseCatalog courseCatalog;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutionMode executionMode;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feedback.analytics.rebuild-fetch-size:1000}")
+    private int rebuildFetchSize;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Sketches ainda não persistidos; protegidos por {@code this}.
+     */
+    private Map<FeedbackSketch.Key, HyperLogLog> pendingStudents = new HashMap<>();
+    private Map<LocalDate, CountMinTopK> pendingCourseCounts = new HashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+    private Counter flushFailures;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        flushFailures = Counter.builder("feedback.analytics.flush.failures")
+                .description("Falhas ao mesclar os sketches em memória nos persistidos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sem sketches persistidos mas com feedbacks já gravados (primeira subida com
+     * o recurso), monta os sketches de todo o histórico em segundo plano.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (sketchRepository.count() == 0 && rollupRepository.findFirstRollupDate() != null) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Após o commit, soma os feedbacks nos sketches em memória. O curso foi gravado no
+     * mesmo commit, então o ID só é consultado (fora do lock), nunca criado.
+     */
+    @TransactionalEventListener
+    public void onFeedbackCreated(FeedbackCreatedEvent event) {
+        Map<String, Integer> courseIds = new HashMap<>();
+        for (FeedbackResponse feedback : event.feedbacks()) {
+            courseCatalog.findId(feedback.getCourse()).ifPresent(id -> courseIds.put(feedback.getCourse(), id));
+        }
+        synchronized (this) {
+            for (FeedbackResponse feedback : event.feedbacks()) {
+                Integer courseId = courseIds.get(feedback.getCourse());
+                if (courseId == null) {
+                    continue;
+                }
+                LocalDate day = feedback.getCreatedAt().toLocalDate();
+                pendingStudents.computeIfAbsent(
+                                new FeedbackSketch.Key(day, courseId, FeedbackSketch.Kind.DISTINCT_STUDENTS),
+                                key -> new HyperLogLog())
+                        .add(normalizeEmail(feedback.getStudentEmail()));
+                pendingCourseCounts.computeIfAbsent(day, key -> new CountMinTopK()).add(courseId, 1);
+            }
+        }
+    }
+
+    /**
+     * Mescla os sketches acumulados nos persistidos. Em caso de falha, eles voltam
+     * intactos para a memória e entram no próximo ciclo.
+     */
+    @Scheduled(fixedDelayString = "${feedback.analytics.flush-interval-ms:10000}")
+    public void flush() {
+        if (rebuilding.get()) {
+            return;
+        }
+        Map<FeedbackSketch.Key, HyperLogLog> students;
+        Map<LocalDate, CountMinTopK> courseCounts;
+        synchronized (this) {
+            if (pendingStudents.isEmpty() && pendingCourseCounts.isEmpty()) {
+                return;
+            }
+            students = pendingStudents;
+            courseCounts = pendingCourseCounts;
+            pendingStudents = new HashMap<>();
+            pendingCourseCounts = new HashMap<>();
+        }
+
+        try {
+            persist(students, courseCounts);
+        } catch (Exception e) {
+            log.warn("Erro ao persistir sketches de analytics; nova tentativa no próximo ciclo", e);
+            flushFailures.increment();
+            synchronized (this) {
+                students.forEach((key, sketch) -> pendingStudents.merge(key, sketch, (a, b) -> {
+                    a.merge(b);
+                    return a;
+                }));
+                courseCounts.forEach((day, sketch) -> pendingCourseCounts.merge(day, sketch, (a, b) -> {
+                    a.merge(b);
+                    return a;
+                }));
+            }
+        }
+    }
+
+    /**
+     * Grava o ciclo em uma transação. Se outra instância inseriu o mesmo sketch entre a
+     * leitura e a inserção (violação de chave primária), repete: agora a linha existe e
+     * é bloqueada e atualizada.
+     */
+    private void persist(Map<FeedbackSketch.Key, HyperLogLog> students, Map<LocalDate, CountMinTopK> courseCounts) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    students.forEach(this::mergeStudents);
+                    courseCounts.forEach(this::mergeCourseCounts);
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == FLUSH_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Sketch inserido por outra instância; repetindo a mesclagem", e);
+            }
+        }
+    }
+
+    private void mergeStudents(FeedbackSketch.Key key, HyperLogLog delta) {
+        HyperLogLog merged = sketchRepository.findForUpdate(key.getSketchDate(), key.getCourseId(), key.getKind())
+                .map(stored -> HyperLogLog.fromBytes(stored.getData()))
+                .orElseGet(HyperLogLog::new);
+        merged.merge(delta);
+        sketchRepository.save(new FeedbackSketch(key.getSketchDate(), key.getCourseId(), key.getKind(),
+                merged.toBytes()));
+    }
+
+    private void mergeCourseCounts(LocalDate day, CountMinTopK delta) {
+        CountMinTopK merged = sketchRepository.findForUpdate(day, FeedbackSketch.ALL_COURSES,
+                        FeedbackSketch.Kind.COURSE_COUNTS)
+                .map(stored -> CountMinTopK.fromBytes(stored.getData()))
+                .orElseGet(CountMinTopK::new);
+        merged.merge(delta);
+        sketchRepository.save(new FeedbackSketch(day, FeedbackSketch.ALL_COURSES, FeedbackSketch.Kind.COURSE_COUNTS,
+                merged.toBytes()));
+    }
+
+    /**
+     * Recalcula todos os sketches a partir da tabela de feedbacks, um dia por vez.
+     * Retorna false se já houver uma reconstrução em andamento.
+     * Feedbacks gravados durante a reconstrução podem ser contados duas vezes
+     * no count-min (o HyperLogLog não é afetado): prefira executá-la fora do pico.
+     * A leitura não cria cursos: feedbacks antigos com curso ainda fora do catálogo
+     * ficam de fora até o backfill de cursos.
+     */
+    public boolean rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        executionMode.threadFactory("analytics-rebuild-").newThread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("Erro ao reconstruir os sketches de analytics", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        }).start();
+        return true;
+    }
+
+    private void rebuild() {
+        DaySketches[] current = {null};
+        long[] days = {0};
+        long[] skipped = {0};
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> feedbackScanRepository.scanForSketches(rebuildFetchSize, rs -> {
+            LocalDate day = rs.getTimestamp("created_at").toLocalDateTime().toLocalDate();
+            if (current[0] != null && !current[0].day.equals(day)) {
+                replaceDay(current[0]);
+                current[0] = null;
+                days[0]++;
+            }
+            if (current[0] == null) {
+                current[0] = new DaySketches(day);
+            }
+            int courseId = rs.getInt("course_id");
+            if (rs.wasNull()) {
+                Optional<Integer> known = courseCatalog.findId(rs.getString("course"));
+                if (known.isEmpty()) {
+                    skipped[0]++;
+                    return;
+                }
+                courseId = known.get();
+            }
+            current[0].add(courseId, normalizeEmail(rs.getString("student_email")));
+        }));
+        if (current[0] != null) {
+            replaceDay(current[0]);
+            days[0]++;
+        }
+        log.info("Sketches de analytics reconstruídos: {} dia(s), {} feedback(s) com curso fora do catálogo",
+                days[0], skipped[0]);
+    }
+
+    private void replaceDay(DaySketches sketches) {
+        transactionTemplate.executeWithoutResult(status -> {
+            sketchRepository.deleteBySketchDate(sketches.day);
+            sketchRepository.flush();
+            sketches.students.forEach((courseId, sketch) -> sketchRepository.save(new FeedbackSketch(
+                    sketches.day, courseId, FeedbackSketch.Kind.DISTINCT_STUDENTS, sketch.toBytes())));
+            sketchRepository.save(new FeedbackSketch(sketches.day, FeedbackSketch.ALL_COURSES,
+                    FeedbackSketch.Kind.COURSE_COUNTS, sketches.courseCounts.toBytes()));
+        });
+    }
+
+    /**
+     * Alunos distintos no período (inclusivo), no total e por curso.
+     */
+    public Map<String, Object> distinctStudents(LocalDate from, LocalDate to, Integer courseId) {
+        List<FeedbackSketch> sketches = courseId != null
+                ? sketchRepository.findBySketchDateBetweenAndKindAndCourseId(from, to,
+                        FeedbackSketch.Kind.DISTINCT_STUDENTS, courseId)
+                : sketchRepository.findBySketchDateBetweenAndKind(from, to, FeedbackSketch.Kind.DISTINCT_STUDENTS);
+
+        HyperLogLog overall = new HyperLogLog();
+        Map<Integer, HyperLogLog> byCourse = new HashMap<>();
+        for (FeedbackSketch stored : sketches) {
+            HyperLogLog sketch = HyperLogLog.fromBytes(stored.getData());
+            overall.merge(sketch);
+            byCourse.computeIfAbsent(stored.getCourseId(), id -> new HyperLogLog()).merge(sketch);
+        }
+
+        Map<String, Long> perCourse = new LinkedHashMap<>();
+        byCourse.forEach((id, sketch) -> perCourse.put(courseName(id), sketch.estimate()));
+
+        Map<String, Object> result = periodHeader(from, to);
+        result.put("distinctStudents", overall.estimate());
+        result.put("byCourse", perCourse);
+        result.put("relativeStandardError", 1.04 / Math.sqrt(1 << HyperLogLog.PRECISION));
+        return result;
+    }
+
+    /**
+     * Percentis de nota no período (inclusivo), no total e por curso, a partir dos rollups.
+     */
+    public Map<String, Object> ratingPercentiles(LocalDate from, LocalDate to, Integer courseId) {
+        String onlyCourse = courseId != null ? courseName(courseId) : null;
+        long[] overall = new long[6];
+        Map<String, Object> perCourse = new LinkedHashMap<>();
+        for (FeedbackRollupTotals totals : rollupRepository.sumByCourseBetween(from, to)) {
+            if (onlyCourse != null && !onlyCourse.equals(totals.getCourse())) {
+                continue;
+            }
+            long[] histogram = {0, valueOf(totals.getRating1()), valueOf(totals.getRating2()),
+                    valueOf(totals.getRating3()), valueOf(totals.getRating4()), valueOf(totals.getRating5())};
+            for (int rating = 1; rating <= 5; rating++) {
+                overall[rating] += histogram[rating];
+            }
+            perCourse.put(totals.getCourse(), percentiles(histogram));
+        }
+
+        Map<String, Object> result = periodHeader(from, to);
+        result.put("overall", percentiles(overall));
+        result.put("byCourse", perCourse);
+        return result;
+    }
+
+    /**
+     * Cursos com mais feedbacks no período (inclusivo), pelo count-min mesclado.
+     */
+    public Map<String, Object> topCourses(LocalDate from, LocalDate to, int limit) {
+        CountMinTopK merged = new CountMinTopK();
+        for (FeedbackSketch stored : sketchRepository.findBySketchDateBetweenAndKind(from, to,
+                FeedbackSketch.Kind.COURSE_COUNTS)) {
+            merged.merge(CountMinTopK.fromBytes(stored.getData()));
+        }
+
+        List<Map<String, Object>> courses = new ArrayList<>();
+        merged.top(Math.min(limit, CountMinTopK.CANDIDATES)).forEach((id, estimate) -> {
+            Map<String, Object> course = new LinkedHashMap<>();
+            course.put("courseId", id);
+            course.put("course", courseName(id));
+            course.put("estimatedFeedbacks", estimate);
+            courses.add(course);
+        });
+
+        Map<String, Object> result = periodHeader(from, to);
+        result.put("totalFeedbacks", merged.getTotal());
+        result.put("topCourses", courses);
+        result.put("maxOverestimate", Math.round(Math.E / CountMinTopK.WIDTH * merged.getTotal()));
+        return result;
+    }
+
+    /**
+     * Percentis pelo método nearest-rank: a menor nota com frequência acumulada ≥ q·N.
+     */
+    private static Map<String, Integer> percentiles(long[] histogram) {
+        long total = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            total += histogram[rating];
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        if (total == 0) {
+            return result;
+        }
+        for (double q : PERCENTILES) {
+            long rank = Math.max(1, (long) Math.ceil(q * total));
+            long cumulative = 0;
+            for (int rating = 1; rating <= 5; rating++) {
+                cumulative += histogram[rating];
+                if (cumulative >= rank) {
+                    result.put("p" + Math.round(q * 100), rating);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Object> periodHeader(LocalDate from, LocalDate to) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        return result;
+    }
+
+    private String courseName(int courseId) {
+        return courseCatalog.nameOf(courseId).orElse("#" + courseId);
+    }
+
+    private static String normalizeEmail(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * Sketches de um dia em construção durante a reconstrução.
+     */
+    private static final class DaySketches {
+
+        private final LocalDate day;
+        private final Map<Integer, HyperLogLog> students = new HashMap<>();
+        private final CountMinTopK courseCounts = new CountMinTopK();
+
+        DaySketches(LocalDate day) {
+            this.day = day;
+        }
+
+        void add(int courseId, String email) {
+            students.computeIfAbsent(courseId, id -> new HyperLogLog()).add(email);
+            courseCounts.add(courseId, 1);
+        }
+    }
+}
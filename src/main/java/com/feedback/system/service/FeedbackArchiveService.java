@@ -0,0 +1,236 @@
+package com.feedback.system.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.feedback.system.archive.ArchiveStorage;
+import com.feedback.system.event.FeedbackPartitionDetachedEvent;
+import com.feedback.system.model.FeedbackArchive;
+import com.feedback.system.repository.FeedbackArchiveRepository;
+import com.feedback.system.repository.FeedbackPartitionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Arquivamento de partições mensais de feedbacks.
+ * A partição é desanexada, exportada em NDJSON gzip para o ArchiveStorage,
+ * conferida (linhas gravadas = linhas da partição) e só então removida do banco.
+ * Os rollups diários não são apagados: os relatórios agregados continuam cobrindo
+ * os meses arquivados. O arquivo usa o formato da importação em massa, mas
+ * POST /api/admin/feedbacks/bulk recusa linhas de meses arquivados, pois os rollups
+ * já as contam. Para trazer um mês de volta, remova antes o registro em feedback_archives
+ * e os rollups do mês; a reimportação vai para a partição padrão com novos IDs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedbackArchiveService {
+
+    private static final DateTimeFormatter KEY_MONTH = DateTimeFormatter.ofPattern("yyyy/MM");
+
+    private final FeedbackPartitionRepository partitionRepository;
+    private final FeedbackArchiveRepository archiveRepository;
+    private final ArchiveStorage archiveStorage;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feedback.archive.prefix:feedbacks}")
+    private String prefix;
+
+    @Value("${feedback.archive.export-fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${feedback.archive.report-cache-size:24}")
+    private int reportCacheSize;
+
+    private TransactionTemplate transactionTemplate;
+    private Cache<YearMonth, RollupSummary> summaries;
+
+    private Counter archivedPartitions;
+    private Counter archivedRows;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Meses arquivados não mudam: o resumo lido do arquivo pode ficar em cache
+        summaries = Caffeine.newBuilder().maximumSize(reportCacheSize).build();
+
+        archivedPartitions = Counter.builder("feedback.archive.partitions")
+                .description("Partições mensais arquivadas")
+                .register(meterRegistry);
+        archivedRows = Counter.builder("feedback.archive.rows")
+                .description("Feedbacks exportados para o arquivo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Desanexa e arquiva a partição. O registro DETACHED é gravado na mesma transação
+     * do DETACH, então uma falha na exportação é retomada por {@link #resumePending()}.
+     * Se o mês já tem registro (outra instância chegou antes), não faz nada: save com ID
+     * atribuído faria merge e sobrescreveria o registro existente. Entre instâncias ao mesmo
+     * tempo, o DETACH da segunda falha (partição já desanexada) e a transação dela é desfeita.
+     */
+    public void archive(String partitionName) {
+        YearMonth month = FeedbackPartitionRepository.monthOf(partitionName);
+        FeedbackArchive archive = transactionTemplate.execute(status -> {
+            if (archiveRepository.existsById(month.toString())) {
+                return null;
+            }
+            FeedbackArchive detached = archiveRepository.save(new FeedbackArchive(month.toString(), partitionName,
+                    objectKey(month), FeedbackArchive.Status.DETACHED, 0, LocalDateTime.now(), null));
+            partitionRepository.detachPartition(partitionName);
+            return detached;
+        });
+        if (archive == null) {
+            log.info("Mês {} já registrado em feedback_archives; partição {} ignorada", month, partitionName);
+            return;
+        }
+        log.info("Partição {} desanexada para arquivamento", partitionName);
+        eventPublisher.publishEvent(new FeedbackPartitionDetachedEvent(month, partitionName));
+        export(archive);
+    }
+
+    /**
+     * Conclui arquivamentos interrompidos (partição desanexada, exportação não confirmada).
+     */
+    public void resumePending() {
+        for (FeedbackArchive archive : archiveRepository.findByStatusOrderByMonthAsc(FeedbackArchive.Status.DETACHED)) {
+            if (partitionRepository.tableExists(archive.getPartitionName())) {
+                log.info("Retomando arquivamento da partição {}", archive.getPartitionName());
+                export(archive);
+            } else {
+                log.error("Partição {} marcada como desanexada não existe mais; verifique o arquivo {}",
+                        archive.getPartitionName(), archiveStorage.location(archive.getObjectKey()));
+            }
+        }
+    }
+
+    private void export(FeedbackArchive archive) {
+        String partitionName = archive.getPartitionName();
+        AtomicLong written = new AtomicLong();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long expected = readOnly.execute(status -> {
+            long rows = partitionRepository.countRows(partitionName);
+            try {
+                archiveStorage.write(archive.getObjectKey(), out -> {
+                    // Sem fechar o stream do armazenamento: em caso de erro ele não publica o arquivo
+                    GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+                    JsonGenerator generator = objectMapper.getFactory().createGenerator(gzip)
+                            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                            .setRootValueSeparator(null);
+                    partitionRepository.scanPartition(partitionName, fetchSize, rs -> {
+                        try {
+                            generator.writeStartObject();
+                            generator.writeStringField("id", rs.getString("id"));
+                            generator.writeStringField("studentName", rs.getString("student_name"));
+                            generator.writeStringField("studentEmail", rs.getString("student_email"));
+                            generator.writeStringField("course", rs.getString("course"));
+                            generator.writeNumberField("rating", rs.getInt("rating"));
+                            generator.writeStringField("comment", rs.getString("comment"));
+                            generator.writeBooleanField("urgent", rs.getBoolean("urgent"));
+                            generator.writeStringField("createdAt",
+                                    rs.getTimestamp("created_at").toLocalDateTime().toString());
+                            generator.writeEndObject();
+                            generator.writeRaw('\n');
+                            written.incrementAndGet();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    generator.close();
+                    gzip.finish();
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return rows;
+        });
+
+        if (written.get() != expected) {
+            throw new IllegalStateException("Arquivo da partição " + partitionName + " incompleto: "
+                    + written.get() + " de " + expected + " linhas");
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            archive.setStatus(FeedbackArchive.Status.ARCHIVED);
+            archive.setRowCount(expected);
+            archive.setArchivedAt(LocalDateTime.now());
+            archiveRepository.save(archive);
+            partitionRepository.dropPartition(partitionName);
+        });
+        archivedPartitions.increment();
+        archivedRows.increment(expected);
+        log.info("Partição {} arquivada em {} ({} feedbacks)", partitionName,
+                archiveStorage.location(archive.getObjectKey()), expected);
+    }
+
+    /**
+     * Registros de arquivamento, do mês mais recente ao mais antigo.
+     */
+    public List<FeedbackArchive> listArchives() {
+        return archiveRepository.findAllByOrderByMonthDesc();
+    }
+
+    /**
+     * Totais de um mês arquivado, lidos do arquivo sob demanda (e mantidos em cache).
+     */
+    public RollupSummary summarize(YearMonth month) {
+        FeedbackArchive archive = archiveRepository.findById(month.toString())
+                .filter(found -> found.getStatus() == FeedbackArchive.Status.ARCHIVED)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Mês não arquivado: " + month));
+        return summaries.get(month, key -> readSummary(archive));
+    }
+
+    private RollupSummary readSummary(FeedbackArchive archive) {
+        RollupSummary summary = new RollupSummary();
+        try (InputStream in = new GZIPInputStream(archiveStorage.open(archive.getObjectKey()), 64 * 1024);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode row = objectMapper.readTree(line);
+                summary.addFeedback(row.path("course").asText(), row.path("rating").asInt(),
+                        row.path("urgent").asBoolean());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o arquivo " + archive.getObjectKey(), e);
+        }
+        return summary;
+    }
+
+    private String objectKey(YearMonth month) {
+        return prefix + "/" + month.format(KEY_MONTH) + ".ndjson.gz";
+    }
+}
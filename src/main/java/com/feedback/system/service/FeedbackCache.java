@@ -0,0 +1,125 @@
+package com.feedback.system.service;
+
+import com.feedback.system.dto.FeedbackPage;
+import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.event.FeedbackCreatedEvent;
+import com.feedback.system.event.FeedbackPartitionDetachedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória das consultas de feedback mais repetidas pelos alunos:
+ * feedback por ID, lista completa e primeira página de cada aluno.
+ * Feedbacks não são alterados após gravados, então o cache por ID só expira por tamanho/TTL.
+ * As entradas do aluno são descartadas após o commit de um novo feedback dele.
+ * Os DTOs são mutáveis (@Data): o cache guarda cópias próprias e entrega uma cópia a cada
+ * leitura, para que quem altere o objeto recebido não altere o valor visto pelos demais.
+ */
+@Component
+@RequiredArgsConstructor
+public class FeedbackCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feedback.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${feedback.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private Cache<String, FeedbackResponse> byId;
+    private Cache<String, List<FeedbackResponse>> allByStudent;
+    private Cache<String, FeedbackPage> firstPageByStudent;
+
+    @PostConstruct
+    void init() {
+        byId = CaffeineCacheMetrics.monitor(meterRegistry, newCache(), "feedback.by-id");
+        allByStudent = CaffeineCacheMetrics.monitor(meterRegistry, newCache(), "feedback.by-student");
+        firstPageByStudent = CaffeineCacheMetrics.monitor(meterRegistry, newCache(), "feedback.by-student.first-page");
+    }
+
+    private <V> Cache<String, V> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Feedback por ID; em caso de falha do loader (ex.: não encontrado) nada é guardado.
+     */
+    public FeedbackResponse getById(String id, Supplier<FeedbackResponse> loader) {
+        return copy(byId.get(id, key -> copy(loader.get())));
+    }
+
+    /**
+     * Todos os feedbacks de um aluno.
+     */
+    public List<FeedbackResponse> getAllByStudent(String email, Supplier<List<FeedbackResponse>> loader) {
+        return copyAll(allByStudent.get(email, key -> copyAll(loader.get())));
+    }
+
+    /**
+     * Primeira página (tamanho padrão) dos feedbacks de um aluno.
+     */
+    public FeedbackPage getFirstPageByStudent(String email, Supplier<FeedbackPage> loader) {
+        return copy(firstPageByStudent.get(email, key -> copy(loader.get())));
+    }
+
+    /**
+     * Após o commit, descarta as listas dos alunos afetados e já guarda os novos feedbacks por ID.
+     * Uma leitura em andamento para a mesma chave termina antes da remoção, então
+     * um valor carregado antes do commit não sobrevive à invalidação.
+     */
+    @TransactionalEventListener
+    public void onFeedbackCreated(FeedbackCreatedEvent event) {
+        for (FeedbackResponse feedback : event.feedbacks()) {
+            allByStudent.invalidate(feedback.getStudentEmail());
+            firstPageByStudent.invalidate(feedback.getStudentEmail());
+            byId.put(feedback.getId(), copy(feedback));
+        }
+    }
+
+    /**
+     * Um mês desanexado sai das consultas: descarta tudo (evento raro, uma vez por mês).
+     */
+    @EventListener
+    public void onPartitionDetached(FeedbackPartitionDetachedEvent event) {
+        byId.invalidateAll();
+        allByStudent.invalidateAll();
+        firstPageByStudent.invalidateAll();
+    }
+
+    private static FeedbackResponse copy(FeedbackResponse feedback) {
+        if (feedback == null) {
+            return null;
+        }
+        return new FeedbackResponse(feedback.getId(), feedback.getStudentName(), feedback.getStudentEmail(),
+                feedback.getCourse(), feedback.getRating(), feedback.getComment(), feedback.isUrgent(),
+                feedback.getCreatedAt());
+    }
+
+    private static List<FeedbackResponse> copyAll(List<FeedbackResponse> feedbacks) {
+        return feedbacks.stream().map(FeedbackCache::copy).toList();
+    }
+
+    private static FeedbackPage copy(FeedbackPage page) {
+        if (page == null) {
+            return null;
+        }
+        return new FeedbackPage(copyAll(page.getItems()), page.getNextCursor());
+    }
+}
@@ -0,0 +1,253 @@
+package com.feedback.system.service;
+
+import com.feedback.system.dto.FeedbackRequest;
+import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.event.FeedbackCreatedEvent;
+import com.feedback.system.model.Feedback;
+import com.feedback.system.repository.FeedbackBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline de ingestão de feedbacks com group commit.
+ * As requisições entram em uma fila limitada e uma thread escritora grava
+ * micro-lotes via JDBC batch, com um único commit por lote.
+ * Notificações de feedbacks urgentes vão para a outbox no mesmo commit.
+ * Ativado por feedback.ingestion.batching-enabled.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedbackIngestionService {
+
+    private static final long IDLE_POLL_MS = 500;
+
+    @Value("${feedback.ingestion.batching-enabled:false}")
+    private boolean enabled;
+
+    @Value("${feedback.ingestion.batch-size:200}")
+    private int batchSize;
+
+    @Value("${feedback.ingestion.max-linger-ms:20}")
+    private long maxLingerMs;
+
+    @Value("${feedback.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private final FeedbackBatchRepository feedbackBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationOutboxService notificationOutboxService;
+    private final FeedbackRollupService feedbackRollupService;
+    private final CourseCatalog courseCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingFeedback> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private DistributionSummary batchSizeSummary;
+    private Timer batchWriteTimer;
+    private Counter rejectedCounter;
+    private Counter failedCounter;
+
+    /**
+     * Item aguardando gravação e o future do chamador.
+     */
+    private record PendingFeedback(Feedback feedback, CompletableFuture<FeedbackResponse> result) {
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("feedback.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Feedbacks aguardando gravação")
+                .register(meterRegistry);
+        Gauge.builder("feedback.ingestion.queue.capacity", () -> queueCapacity)
+                .description("Capacidade máxima da fila de ingestão")
+                .register(meterRegistry);
+        Gauge.builder("feedback.ingestion.batch.max-size", () -> batchSize)
+                .description("Tamanho máximo configurado de cada lote")
+                .register(meterRegistry);
+        Gauge.builder("feedback.ingestion.linger.max", () -> maxLingerMs)
+                .description("Tempo máximo de espera para completar um lote")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("feedback.ingestion.batch.size")
+                .description("Quantidade de feedbacks gravados por lote")
+                .register(meterRegistry);
+        batchWriteTimer = Timer.builder("feedback.ingestion.batch.write")
+                .description("Tempo de gravação e commit de cada lote")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("feedback.ingestion.rejected")
+                .description("Feedbacks recusados por fila cheia")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("feedback.ingestion.failed")
+                .description("Feedbacks cuja gravação em lote falhou")
+                .register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(this::runWriter, "feedback-ingestion-writer");
+        writerThread.start();
+        log.info("Ingestão em lote ativada. Lote: {}, espera máxima: {} ms, fila: {}",
+                batchSize, maxLingerMs, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enfileira o feedback e retorna um future concluído após o commit do lote.
+     */
+    public CompletableFuture<FeedbackResponse> submit(FeedbackRequest request) {
+        return offer(request).result();
+    }
+
+    /**
+     * Enfileira o feedback sem aguardar a gravação (fire-and-forget).
+     * Retorna imediatamente os dados aceitos, já com o ID gerado.
+     */
+    public FeedbackResponse enqueue(FeedbackRequest request) {
+        return FeedbackResponse.fromEntity(offer(request).feedback());
+    }
+
+    private PendingFeedback offer(FeedbackRequest request) {
+        if (!running) {
+            throw new IllegalStateException("Ingestão em lote não está ativa");
+        }
+
+        Feedback feedback = request.toEntity();
+        LocalDateTime now = LocalDateTime.now();
+        feedback.setId(UUID.randomUUID().toString());
+        courseCatalog.assign(feedback);
+        feedback.setCreatedAt(now);
+        feedback.setUpdatedAt(now);
+
+        PendingFeedback pending = new PendingFeedback(feedback, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            rejectedCounter.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Fila de ingestão cheia, tente novamente");
+        }
+        // stop() pode ter rodado entre a primeira verificação e o offer: se a escritora
+        // já esvaziou a fila, o item ficaria sem resposta. Se ainda está na fila, sai daqui;
+        // se não está, a escritora já o pegou e completa o future.
+        if (!running && queue.remove(pending)) {
+            throw new IllegalStateException("Ingestão em lote não está ativa");
+        }
+        return pending;
+    }
+
+    /**
+     * Laço da thread escritora: aguarda o primeiro item e completa o lote
+     * até atingir o tamanho máximo ou o tempo máximo de espera.
+     */
+    private void runWriter() {
+        List<PendingFeedback> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingFeedback first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLingerMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingFeedback next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                writeBatch(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        // Interrompido antes de esvaziar a fila: falha explicitamente o que restou
+        running = false;
+        queue.drainTo(batch);
+        IllegalStateException shutdown = new IllegalStateException("Ingestão encerrada antes da gravação");
+        batch.forEach(pending -> pending.result().completeExceptionally(shutdown));
+    }
+
+    private void writeBatch(List<PendingFeedback> batch) {
+        List<Feedback> feedbacks = batch.stream().map(PendingFeedback::feedback).toList();
+        List<FeedbackResponse> responses = feedbacks.stream().map(FeedbackResponse::fromEntity).toList();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<Feedback> urgent = feedbacks.stream().filter(Feedback::isUrgent).toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                feedbackBatchRepository.insertAll(feedbacks);
+                feedbackRollupService.recordAll(feedbacks);
+                if (!urgent.isEmpty()) {
+                    notificationOutboxService.enqueueAll(urgent);
+                }
+                eventPublisher.publishEvent(new FeedbackCreatedEvent(responses));
+            });
+        } catch (Exception e) {
+            log.error("Erro ao gravar lote de {} feedbacks", batch.size(), e);
+            failedCounter.increment(batch.size());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        } finally {
+            sample.stop(batchWriteTimer);
+        }
+
+        batchSizeSummary.record(batch.size());
+        log.debug("Lote de {} feedbacks gravado", batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(responses.get(i));
+        }
+    }
+}
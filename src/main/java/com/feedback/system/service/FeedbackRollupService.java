@@ -0,0 +1,126 @@
+package com.feedback.system.service;
+
+import com.feedback.system.model.Feedback;
+import com.feedback.system.repository.FeedbackRepository;
+import com.feedback.system.repository.FeedbackRollupBatchRepository;
+import com.feedback.system.repository.FeedbackRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serviço de rollups diários de feedback (contagens por dia e curso).
+ * Os contadores são atualizados na mesma transação da inserção.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedbackRollupService {
+
+    private static final int URGENT_INDEX = 5;
+    private static final int CRITICAL_INDEX = 6;
+
+    private final FeedbackRollupRepository rollupRepository;
+    private final FeedbackRollupBatchRepository rollupBatchRepository;
+    private final FeedbackRepository feedbackRepository;
+
+    /**
+     * Contabiliza os feedbacks nos rollups.
+     * Deve ser chamado dentro da transação que grava os feedbacks.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<Feedback> feedbacks) {
+        Map<FeedbackRollupKey, long[]> counters = new HashMap<>();
+        for (Feedback feedback : feedbacks) {
+            FeedbackRollupKey key = new FeedbackRollupKey(feedback.getCreatedAt().toLocalDate(), feedback.getCourse());
+            long[] values = counters.computeIfAbsent(key, k -> new long[7]);
+            values[feedback.getRating() - 1]++;
+            if (feedback.isUrgent()) {
+                values[URGENT_INDEX]++;
+            }
+            if (feedback.getRating() <= 2) {
+                values[CRITICAL_INDEX]++;
+            }
+        }
+
+        // Ordem fixa das chaves evita deadlock entre transações concorrentes
+        List<FeedbackRollupBatchRepository.Delta> deltas = new ArrayList<>(counters.size());
+        counters.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator
+                        .comparing(FeedbackRollupKey::rollupDate)
+                        .thenComparing(FeedbackRollupKey::course)))
+                .forEach(e -> deltas.add(new FeedbackRollupBatchRepository.Delta(
+                        e.getKey().rollupDate(), e.getKey().course(), e.getValue())));
+
+        rollupBatchRepository.upsertAll(deltas);
+    }
+
+    /**
+     * Totais de um intervalo de dias (inclusivo).
+     */
+    @Transactional(readOnly = true)
+    public RollupSummary summarize(LocalDate from, LocalDate to) {
+        return RollupSummary.of(rollupRepository.sumByCourseBetween(from, to));
+    }
+
+    /**
+     * Totais de todo o histórico.
+     */
+    @Transactional(readOnly = true)
+    public RollupSummary summarizeAll() {
+        return RollupSummary.of(rollupRepository.sumByCourse());
+    }
+
+    /**
+     * Totais de todo o histórico de um curso.
+     */
+    @Transactional(readOnly = true)
+    public RollupSummary summarizeCourse(String course) {
+        return RollupSummary.of(rollupRepository.sumForCourse(course));
+    }
+
+    /**
+     * Na primeira subida após a criação da tabela de rollups, preenche
+     * os contadores a partir dos feedbacks já existentes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (rollupRepository.count() == 0 && feedbackRepository.count() > 0) {
+            log.warn("Tabela de rollups vazia com feedbacks existentes");
+            rebuild();
+        }
+    }
+
+    /**
+     * Recalcula os rollups a partir da tabela de feedbacks.
+     * Os rollups dos meses arquivados (fora do banco) são mantidos como estão.
+     *
+     * @return quantidade de linhas de rollup geradas
+     */
+    @Transactional
+    public int rebuild() {
+        log.info("Recalculando rollups de feedback");
+        int rows = rollupBatchRepository.rebuild();
+        log.info("Rollups recalculados. Linhas: {}", rows);
+        return rows;
+    }
+
+    private record FeedbackRollupKey(LocalDate rollupDate, String course) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.feedback.system.service;
+
+import com.feedback.system.config.ExecutionMode;
+import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.dto.FeedbackSearchPage;
+import com.feedback.system.event.FeedbackCreatedEvent;
+import com.feedback.system.event.FeedbackPartitionDetachedEvent;
+import com.feedback.system.repository.FeedbackRepository;
+import com.feedback.system.repository.FeedbackScanRepository;
+import com.feedback.system.search.FeedbackSearchIndex;
+import com.feedback.system.search.PortugueseAnalyzer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Busca textual nos comentários dos feedbacks.
+ * O índice é construído a partir do banco quando a aplicação sobe e atualizado
+ * após o commit de cada novo feedback. Durante uma reconstrução o índice anterior
+ * continua atendendo e os feedbacks novos são guardados e aplicados ao final.
+ * Cada instância mantém o próprio índice: feedbacks gravados por outra instância
+ * só aparecem após uma reconstrução (POST /api/admin/feedbacks/search/rebuild).
+ * Ao desanexar uma partição mensal o índice é reconstruído, para sair dos resultados e do total.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedbackSearchService {
+
+    private final FeedbackRepository feedbackRepository;
+    private final FeedbackScanRepository feedbackScanRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutionMode executionMode;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feedback.search.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${feedback.search.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${feedback.search.max-result-window:10000}")
+    private int maxResultWindow;
+
+    @Value("${feedback.search.rebuild-fetch-size:1000}")
+    private int rebuildFetchSize;
+
+    private volatile FeedbackSearchIndex index;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean rebuildAgain = new AtomicBoolean();
+
+    /**
+     * Feedbacks confirmados durante a reconstrução; protegido por {@code this}.
+     */
+    private List<FeedbackResponse> pendingDuringRebuild;
+
+    private Timer queryTimer;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("feedback.search.documents", this, service -> service.index == null ? 0 : service.index.size())
+                .description("Feedbacks no índice de busca")
+                .register(meterRegistry);
+        Gauge.builder("feedback.search.terms", this, service -> service.index == null ? 0 : service.index.termCount())
+                .description("Termos distintos no índice de busca")
+                .register(meterRegistry);
+        queryTimer = Timer.builder("feedback.search.query")
+                .description("Tempo de consulta ao índice de busca")
+                .register(meterRegistry);
+        rebuildTimer = Timer.builder("feedback.search.rebuild")
+                .description("Tempo de reconstrução do índice de busca a partir do banco")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildAsync();
+    }
+
+    /**
+     * Dispara a reconstrução em segundo plano. Retorna false se já houver uma em andamento.
+     */
+    public boolean rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        executionMode.threadFactory("feedback-search-rebuild-").newThread(this::rebuild).start();
+        return true;
+    }
+
+    private void rebuild() {
+        FeedbackSearchIndex rebuilt = new FeedbackSearchIndex();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> feedbackScanRepository.scanForSearch(rebuildFetchSize,
+                    rs -> rebuilt.add(rs.getString("id"), rs.getString("course"), rs.getInt("rating"),
+                            rs.getBoolean("urgent"), rs.getString("comment"))));
+
+            // Feedbacks já lidos pela varredura são ignorados pelo próprio índice (mesmo ID)
+            synchronized (this) {
+                pendingDuringRebuild.forEach(feedback -> addTo(rebuilt, feedback));
+                pendingDuringRebuild = null;
+                index = rebuilt;
+            }
+            long elapsedMs = sample.stop(rebuildTimer) / 1_000_000;
+            log.info("Índice de busca reconstruído: {} feedbacks, {} termos em {} ms",
+                    rebuilt.size(), rebuilt.termCount(), elapsedMs);
+        } catch (Exception e) {
+            // O índice anterior (se houver) já recebeu os pendentes em onFeedbackCreated
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            log.error("Erro ao reconstruir o índice de busca", e);
+        } finally {
+            rebuilding.set(false);
+        }
+        // Pedida durante esta reconstrução, que pode ter lido linhas já removidas
+        if (rebuildAgain.getAndSet(false)) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Os feedbacks de um mês desanexado continuam no índice: reconstrói a partir do banco.
+     */
+    @EventListener
+    public void onPartitionDetached(FeedbackPartitionDetachedEvent event) {
+        if (!rebuildAsync()) {
+            rebuildAgain.set(true);
+            // A reconstrução em andamento pode ter terminado antes de ver o pedido
+            if (!rebuilding.get() && rebuildAgain.getAndSet(false)) {
+                rebuildAsync();
+            }
+        }
+    }
+
+    /**
+     * Após o commit, indexa os novos feedbacks (ou guarda para o fim da reconstrução).
+     */
+    @TransactionalEventListener
+    public void onFeedbackCreated(FeedbackCreatedEvent event) {
+        synchronized (this) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.addAll(event.feedbacks());
+            }
+        }
+        FeedbackSearchIndex current = index;
+        if (current != null) {
+            event.feedbacks().forEach(feedback -> addTo(current, feedback));
+        }
+    }
+
+    private static void addTo(FeedbackSearchIndex target, FeedbackResponse feedback) {
+        target.add(feedback.getId(), feedback.getCourse(), feedback.getRating(), feedback.isUrgent(),
+                feedback.getComment());
+    }
+
+    /**
+     * Busca ranqueada por relevância, com filtros opcionais e paginação por número de página.
+     */
+    public FeedbackSearchPage search(String query, String course, Integer rating, Boolean urgent,
+                                     int page, Integer size) {
+        FeedbackSearchIndex current = index;
+        if (current == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Índice de busca em construção");
+        }
+
+        List<String> terms = PortugueseAnalyzer.analyze(query);
+        if (terms.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Consulta sem termos pesquisáveis");
+        }
+        int pageSize = size == null ? defaultPageSize : size;
+        if (page < 0 || pageSize < 1 || pageSize > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Parâmetros de página inválidos (size entre 1 e " + maxPageSize + ")");
+        }
+        if ((long) (page + 1) * pageSize > maxResultWindow) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Página além do limite de " + maxResultWindow + " resultados; refine a busca");
+        }
+
+        FeedbackSearchIndex.Result result = queryTimer.record(
+                () -> current.search(terms, course, rating, urgent, page * pageSize, pageSize));
+
+        List<String> ids = result.hits().stream().map(FeedbackSearchIndex.Hit::id).toList();
+        Map<String, FeedbackResponse> byId = ids.isEmpty() ? Map.of()
+                : feedbackRepository.findResponsesByIdIn(ids).stream()
+                        .collect(Collectors.toMap(FeedbackResponse::getId, Function.identity()));
+
+        List<FeedbackSearchPage.Hit> items = new ArrayList<>();
+        for (FeedbackSearchIndex.Hit hit : result.hits()) {
+            FeedbackResponse feedback = byId.get(hit.id());
+            if (feedback != null) {
+                items.add(new FeedbackSearchPage.Hit(hit.score(), feedback));
+            }
+        }
+        return new FeedbackSearchPage(items, result.total(), page, pageSize);
+    }
+}
@@ -1,17 +1,27 @@
 package com.feedback.system.service;
 
+import com.feedback.system.dto.FeedbackCursor;
+import com.feedback.system.dto.FeedbackPage;
 import com.feedback.system.dto.FeedbackRequest;
 import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.event.FeedbackCreatedEvent;
 import com.feedback.system.model.Feedback;
 import com.feedback.system.repository.FeedbackRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Serviço de negócio para gerenciamento de feedbacks.
@@ -22,92 +32,205 @@ import java.util.stream.Collectors;
 public class FeedbackService {
 
     private final FeedbackRepository feedbackRepository;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final FeedbackRollupService feedbackRollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final FeedbackCache feedbackCache;
+    private final CourseCatalog courseCatalog;
+
+    @Value("${feedback.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${feedback.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    private Timer persistTimer;
+    private Timer urgentPersistTimer;
+    private Timer notificationTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        persistTimer = createTimer("feedback.create.persist", false);
+        urgentPersistTimer = createTimer("feedback.create.persist", true);
+        notificationTimer = createTimer("feedback.create.notification", true);
+    }
+
+    private Timer createTimer(String name, boolean urgent) {
+        return Timer.builder(name)
+                .description("Etapas da criação de feedback (gravação e registro da notificação)")
+                .tag("urgent", String.valueOf(urgent))
+                .register(meterRegistry);
+    }
 
     /**
      * Cria um novo feedback.
-     * Se for urgente, dispara uma notificação automática.
+     * Se for urgente, registra a notificação na outbox na mesma transação.
      */
     @Transactional
     public FeedbackResponse createFeedback(FeedbackRequest request) {
         log.info("Criando novo feedback para aluno: {}", request.getStudentEmail());
 
-        Feedback feedback = new Feedback();
-        feedback.setStudentName(request.getStudentName());
-        feedback.setStudentEmail(request.getStudentEmail());
-        feedback.setCourse(request.getCourse());
-        feedback.setRating(request.getRating());
-        feedback.setComment(request.getComment());
-        feedback.setUrgent(request.isUrgent());
+        Feedback feedback = request.toEntity();
+        courseCatalog.assign(feedback);
 
-        Feedback savedFeedback = feedbackRepository.saveAndFlush(feedback);
+        Timer persist = feedback.isUrgent() ? urgentPersistTimer : persistTimer;
+        Feedback savedFeedback = persist.record(() -> {
+            Feedback saved = feedbackRepository.saveAndFlush(feedback);
+            feedbackRollupService.recordAll(List.of(saved));
+            return saved;
+        });
         log.info("Feedback criado com sucesso. ID: {}", savedFeedback.getId());
 
-        // Se for urgente, envia notificação
+        // Se for urgente, registra a notificação (entregue após o commit pelo despachante)
         if (savedFeedback.isUrgent()) {
-            log.warn("Feedback urgente detectado! Enviando notificação...");
-            notificationService.sendUrgentFeedbackNotification(savedFeedback);
+            log.warn("Feedback urgente detectado! Registrando notificação...");
+            notificationTimer.record(() -> notificationOutboxService.enqueue(savedFeedback));
         }
 
-        return FeedbackResponse.fromEntity(savedFeedback);
+        FeedbackResponse response = FeedbackResponse.fromEntity(savedFeedback);
+        eventPublisher.publishEvent(new FeedbackCreatedEvent(List.of(response)));
+        return response;
     }
 
     /**
      * Busca todos os feedbacks.
      */
+    @Transactional(readOnly = true)
     public List<FeedbackResponse> getAllFeedbacks() {
         log.info("Buscando todos os feedbacks");
-        return feedbackRepository.findAll()
-                .stream()
-                .map(FeedbackResponse::fromEntity)
-                .collect(Collectors.toList());
+        return feedbackRepository.findAllResponses();
     }
 
     /**
-     * Busca feedbacks por email do aluno.
+     * Busca feedbacks por email do aluno (via cache).
+     * Sem transação no método: um acerto no cache não abre conexão com o banco.
      */
     public List<FeedbackResponse> getFeedbacksByStudent(String email) {
         log.info("Buscando feedbacks do aluno: {}", email);
-        return feedbackRepository.findByStudentEmailOrderByCreatedAtDesc(email)
-                .stream()
-                .map(FeedbackResponse::fromEntity)
-                .collect(Collectors.toList());
+        return feedbackCache.getAllByStudent(email, () -> feedbackRepository.findResponsesByStudentEmail(email));
     }
 
     /**
-     * Busca um feedback por ID.
+     * Busca um feedback por ID (via cache).
      */
     public FeedbackResponse getFeedbackById(String id) {
         log.info("Buscando feedback por ID: {}", id);
-        Feedback feedback = feedbackRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Feedback não encontrado"));
-        return FeedbackResponse.fromEntity(feedback);
+        return feedbackCache.getById(id, () -> feedbackRepository.findResponseById(id)
+                .orElseThrow(() -> new RuntimeException("Feedback não encontrado")));
     }
 
     /**
      * Busca feedbacks urgentes.
      */
+    @Transactional(readOnly = true)
     public List<FeedbackResponse> getUrgentFeedbacks() {
         log.info("Buscando feedbacks urgentes");
-        return feedbackRepository.findByUrgentTrue()
-                .stream()
-                .map(FeedbackResponse::fromEntity)
-                .collect(Collectors.toList());
+        return feedbackRepository.findUrgentResponses();
     }
 
     /**
      * Busca feedbacks da última semana.
      */
-    public List<Feedback> getLastWeekFeedbacks() {
+    @Transactional(readOnly = true)
+    public List<FeedbackResponse> getLastWeekFeedbacks() {
         LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
         LocalDateTime now = LocalDateTime.now();
         log.info("Buscando feedbacks da última semana");
-        return feedbackRepository.findByCreatedAtBetween(oneWeekAgo, now);
+        return feedbackRepository.findResponsesByCreatedAtBetween(oneWeekAgo, now);
+    }
+
+    /**
+     * Página de feedbacks (mais recentes primeiro), opcionalmente só da última semana.
+     */
+    @Transactional(readOnly = true)
+    public FeedbackPage getFeedbacksPage(boolean lastWeek, String cursor, Integer size) {
+        FeedbackCursor position = FeedbackCursor.decode(cursor);
+        LocalDateTime since = lastWeek ? LocalDateTime.now().minusWeeks(1) : LocalDateTime.of(1970, 1, 1, 0, 0);
+        int limit = pageSize(size);
+        log.info("Buscando página de feedbacks. LastWeek: {}, tamanho: {}", lastWeek, limit);
+        return toPage(feedbackRepository.findPage(since, position.createdAt(), position.id(),
+                PageRequest.of(0, limit + 1)), limit);
+    }
+
+    /**
+     * Página de feedbacks de um aluno (mais recentes primeiro).
+     * A primeira página no tamanho padrão vem do cache.
+     */
+    public FeedbackPage getFeedbacksByStudentPage(String email, String cursor, Integer size) {
+        FeedbackCursor position = FeedbackCursor.decode(cursor);
+        int limit = pageSize(size);
+        log.info("Buscando página de feedbacks do aluno: {}", email);
+        if (cursor == null && limit == defaultPageSize) {
+            return feedbackCache.getFirstPageByStudent(email, () -> loadStudentPage(email, position, limit));
+        }
+        return loadStudentPage(email, position, limit);
+    }
+
+    private FeedbackPage loadStudentPage(String email, FeedbackCursor position, int limit) {
+        return toPage(feedbackRepository.findPageByStudentEmail(email, position.createdAt(), position.id(),
+                PageRequest.of(0, limit + 1)), limit);
+    }
+
+    /**
+     * Página de feedbacks urgentes (mais recentes primeiro).
+     */
+    @Transactional(readOnly = true)
+    public FeedbackPage getUrgentFeedbacksPage(String cursor, Integer size) {
+        FeedbackCursor position = FeedbackCursor.decode(cursor);
+        int limit = pageSize(size);
+        log.info("Buscando página de feedbacks urgentes");
+        return toPage(feedbackRepository.findUrgentPage(position.createdAt(), position.id(),
+                PageRequest.of(0, limit + 1)), limit);
+    }
+
+    /**
+     * Página de feedbacks de um curso (mais recentes primeiro), pelo índice (course_id, created_at, id).
+     */
+    @Transactional(readOnly = true)
+    public FeedbackPage getCourseFeedbacksPage(Integer courseId, String cursor, Integer size) {
+        FeedbackCursor position = FeedbackCursor.decode(cursor);
+        int limit = pageSize(size);
+        log.info("Buscando página de feedbacks do curso: {}", courseId);
+        return toPage(feedbackRepository.findPageByCourseId(courseId, position.createdAt(), position.id(),
+                PageRequest.of(0, limit + 1)), limit);
+    }
+
+    /**
+     * Média de avaliações e total de feedbacks de um curso.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCourseRatingSummary(Integer courseId) {
+        Double average = feedbackRepository.calculateAverageRatingByCourseId(courseId);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("averageRating", average != null ? average : 0.0);
+        summary.put("totalFeedbacks", feedbackRepository.countByCourseId(courseId));
+        return summary;
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    /**
+     * Monta a página a partir de uma consulta com um item extra,
+     * usado apenas para saber se existe próxima página.
+     */
+    private FeedbackPage toPage(List<FeedbackResponse> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new FeedbackPage(rows, null);
+        }
+        List<FeedbackResponse> items = rows.subList(0, limit);
+        return new FeedbackPage(items, FeedbackCursor.after(items.get(limit - 1)).encode());
     }
 
     /**
      * Calcula a média geral de avaliações.
      */
+    @Transactional(readOnly = true)
     public Double calculateOverallAverageRating() {
         Double average = feedbackRepository.calculateOverallAverageRating();
         return average != null ? average : 0.0;
@@ -116,6 +239,7 @@ public class FeedbackService {
     /**
      * Conta feedbacks urgentes.
      */
+    @Transactional(readOnly = true)
     public long countUrgentFeedbacks() {
         return feedbackRepository.countByUrgentTrue();
     }
@@ -123,7 +247,16 @@ public class FeedbackService {
     /**
      * Busca os feedbacks mais recentes.
      */
+    @Transactional(readOnly = true)
     public List<Feedback> getRecentFeedbacks() {
         return feedbackRepository.findTop10ByOrderByCreatedAtDesc();
     }
+
+    /**
+     * Busca os 5 feedbacks mais recentes criados em [from, until).
+     */
+    @Transactional(readOnly = true)
+    public List<Feedback> getRecentFeedbacksBetween(LocalDateTime from, LocalDateTime until) {
+        return feedbackRepository.findTop5ByCreatedAtGreaterThanEqualAndCreatedAtLessThanOrderByCreatedAtDesc(from, until);
+    }
 }
@@ -0,0 +1,165 @@
+package com.feedback.system.service;
+
+import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.event.FeedbackCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores em memória das estatísticas gerais de feedback.
+ * Inicializados a partir do banco na subida, incrementados a cada commit de
+ * novos feedbacks e reconciliados periodicamente com o banco (o que também
+ * incorpora gravações feitas por outras instâncias).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FeedbackStatsService {
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final FeedbackRollupService feedbackRollupService;
+    private final DataVersion dataVersion;
+
+    private final LongAdder urgent = new LongAdder();
+    private final LongAdder[] ratingCounts = {
+            new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()
+    };
+
+    /**
+     * Carrega os contadores a partir do banco ao iniciar a aplicação
+     * (depois da eventual reconstrução dos rollups).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void seed() {
+        reconcile();
+        log.info("Estatísticas em memória inicializadas. Total de feedbacks: {}", getTotal());
+    }
+
+    /**
+     * Incrementa os contadores após o commit de novos feedbacks.
+     */
+    @TransactionalEventListener
+    public void onFeedbackCreated(FeedbackCreatedEvent event) {
+        for (FeedbackResponse feedback : event.feedbacks()) {
+            ratingCounts[feedback.getRating()].increment();
+            if (feedback.isUrgent()) {
+                urgent.increment();
+            }
+        }
+    }
+
+    /**
+     * Ajusta os contadores pela diferença em relação ao banco.
+     * Os contadores são lidos antes e depois da consulta: só há ajuste com valores
+     * estáveis durante a leitura, senão um feedback gravado no meio seria contado duas
+     * vezes (pelo evento e pela diferença). Se não estabilizam após algumas tentativas,
+     * vale a leitura posterior à consulta, que no máximo deixa um commit concorrente
+     * de fora até o ciclo seguinte.
+     *
+     * @return true se algum contador precisou ser ajustado
+     */
+    public boolean reconcile() {
+        RollupSummary summary;
+        long[] counts;
+        long urgentCount;
+        int attempt = 0;
+        while (true) {
+            long[] before = ratingSnapshot();
+            long urgentBefore = urgent.sum();
+            summary = feedbackRollupService.summarizeAll();
+            counts = ratingSnapshot();
+            urgentCount = urgent.sum();
+            if ((Arrays.equals(before, counts) && urgentBefore == urgentCount) || ++attempt >= RECONCILE_ATTEMPTS) {
+                break;
+            }
+        }
+        Map<Integer, Long> distribution = summary.getRatingDistribution();
+
+        boolean adjusted = false;
+        for (int rating = 1; rating <= 5; rating++) {
+            long drift = distribution.getOrDefault(rating, 0L) - counts[rating];
+            if (drift != 0) {
+                ratingCounts[rating].add(drift);
+                adjusted = true;
+            }
+        }
+        long urgentDrift = summary.getUrgent() - urgentCount;
+        if (urgentDrift != 0) {
+            urgent.add(urgentDrift);
+            adjusted = true;
+        }
+
+        if (adjusted) {
+            // Divergência indica gravações não vistas por esta instância: invalida os ETags
+            dataVersion.advance();
+            log.info("Estatísticas em memória reconciliadas com o banco. Total: {}", getTotal());
+        }
+        return adjusted;
+    }
+
+    @Scheduled(initialDelayString = "${feedback.stats.reconcile-interval-ms:60000}",
+            fixedDelayString = "${feedback.stats.reconcile-interval-ms:60000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("Erro ao reconciliar estatísticas com o banco", e);
+        }
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            total += ratingCounts[rating].sum();
+        }
+        return total;
+    }
+
+    public long getUrgent() {
+        return urgent.sum();
+    }
+
+    public double getAverageRating() {
+        long[] counts = ratingSnapshot();
+        long total = 0;
+        long sum = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            total += counts[rating];
+            sum += rating * counts[rating];
+        }
+        return total == 0 ? 0.0 : (double) sum / total;
+    }
+
+    /**
+     * Estatísticas no formato do endpoint GET /api/admin/stats.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalFeedbacks", getTotal());
+        stats.put("urgentFeedbacks", getUrgent());
+        stats.put("averageRating", getAverageRating());
+        return stats;
+    }
+
+    private long[] ratingSnapshot() {
+        long[] counts = new long[6];
+        for (int rating = 1; rating <= 5; rating++) {
+            counts[rating] = ratingCounts[rating].sum();
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,142 @@
+package com.feedback.system.service;
+
+import com.feedback.system.repository.FeedbackScanRepository;
+import com.feedback.system.segment.FeedbackSegment;
+import com.feedback.system.segment.SegmentStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Agregações sobre o histórico de feedbacks a partir dos segmentos colunares.
+ * Os dias selados são lidos direto dos arquivos mapeados em memória, com
+ * contadores em arrays primitivos (sem objetos por linha); só os dias sem
+ * segmento (o dia corrente ou um dia à espera de nova selagem) consultam o banco.
+ * A agregação só lê: feedbacks antigos sem course_id usam o catálogo existente e, se o
+ * curso ainda não estiver nele, são somados pelo nome.
+ */
+@Service
+@RequiredArgsConstructor
+public class HistoricalReportEngine {
+
+    private final SegmentStore segmentStore;
+    private final FeedbackScanRepository feedbackScanRepository;
+    private final CourseCatalog courseCatalog;
+
+    /**
+     * Totais do intervalo de dias [from, to], opcionalmente de um único curso.
+     */
+    public RollupSummary summarize(LocalDate from, LocalDate to, Integer courseId) {
+        Counts counts = new Counts();
+        LocalDate missingFrom = null;
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            FeedbackSegment segment = segmentStore.get(day);
+            if (segment == null) {
+                if (missingFrom == null) {
+                    missingFrom = day;
+                }
+                continue;
+            }
+            if (missingFrom != null) {
+                addFromDatabase(counts, missingFrom, day, courseId);
+                missingFrom = null;
+            }
+            scan(counts, segment, courseId);
+        }
+        if (missingFrom != null) {
+            addFromDatabase(counts, missingFrom, to.plusDays(1), courseId);
+        }
+
+        Map<String, Long> courseCounts = new HashMap<>(counts.byCourseName);
+        for (int id = 0; id < counts.byCourse.length; id++) {
+            if (counts.byCourse[id] > 0) {
+                String name = courseCatalog.nameOf(id).orElse("#" + id);
+                courseCounts.merge(name, counts.byCourse[id], Long::sum);
+            }
+        }
+        return RollupSummary.fromCounts(counts.ratings, counts.urgent, counts.critical, courseCounts, counts.rows);
+    }
+
+    private static void scan(Counts counts, FeedbackSegment segment, Integer courseId) {
+        int rows = segment.getRows();
+        int onlyCourse = courseId != null ? courseId : -1;
+        for (int row = 0; row < rows; row++) {
+            int course = segment.courseId(row);
+            if (onlyCourse >= 0 && course != onlyCourse) {
+                continue;
+            }
+            counts.add(course, segment.rating(row), segment.urgent(row), 1);
+        }
+    }
+
+    /**
+     * Soma os dias [from, toExclusive) com uma única consulta agregada no banco.
+     */
+    private void addFromDatabase(Counts counts, LocalDate from, LocalDate toExclusive, Integer courseId) {
+        feedbackScanRepository.aggregateBetween(from.atStartOfDay(), toExclusive.atStartOfDay(), rs -> {
+            int course = rs.getInt("course_id");
+            if (rs.wasNull()) {
+                String name = rs.getString("course");
+                Optional<Integer> known = courseCatalog.findId(name);
+                if (known.isEmpty()) {
+                    if (courseId == null) {
+                        counts.addByName(name, rs.getInt("rating"), rs.getBoolean("urgent"), rs.getLong("total"));
+                    }
+                    return;
+                }
+                course = known.get();
+            }
+            if (courseId == null || course == courseId) {
+                counts.add(course, rs.getInt("rating"), rs.getBoolean("urgent"), rs.getLong("total"));
+            }
+        });
+    }
+
+    /**
+     * Contadores da agregação; byCourse é indexado pelo course_id e byCourseName guarda
+     * os cursos ainda fora do catálogo. rows é a quantidade de feedbacks somados.
+     */
+    private static final class Counts {
+
+        private final long[] ratings = new long[6];
+        private final Map<String, Long> byCourseName = new HashMap<>();
+        private long[] byCourse = new long[64];
+        private long urgent;
+        private long critical;
+        private long rows;
+
+        void add(int course, int rating, boolean isUrgent, long count) {
+            if (course >= byCourse.length) {
+                byCourse = Arrays.copyOf(byCourse, Math.max(course + 1, byCourse.length * 2));
+            }
+            if (course >= 0) {
+                byCourse[course] += count;
+            }
+            addTotals(rating, isUrgent, count);
+        }
+
+        void addByName(String course, int rating, boolean isUrgent, long count) {
+            byCourseName.merge(course, count, Long::sum);
+            addTotals(rating, isUrgent, count);
+        }
+
+        private void addTotals(int rating, boolean isUrgent, long count) {
+            if (rating >= 1 && rating <= 5) {
+                ratings[rating] += count;
+            }
+            if (isUrgent) {
+                urgent += count;
+            }
+            if (rating <= 2) {
+                critical += count;
+            }
+            rows += count;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.feedback.system.service;
+
+import com.feedback.system.model.NotificationOutbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Despachante da outbox de notificações.
+ * A cada ciclo reserva as entradas pendentes e as agrupa em chamadas
+ * com array JSON (coalescência das notificações da janela de polling).
+ * As entregas são assíncronas, fora da transação e do ciclo da requisição HTTP.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxDispatcher {
+
+    private final NotificationOutboxService outboxService;
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notification.outbox.coalesce-max-size:25}")
+    private int coalesceMaxSize;
+
+    @Value("${notification.outbox.shed-delay-ms:5000}")
+    private long shedDelayMs;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    private Counter sentCounter;
+    private Counter retryCounter;
+    private Counter exhaustedCounter;
+    private Counter deferredCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("notification.outbox.backlog", backlog, AtomicLong::get)
+                .description("Notificações pendentes na outbox")
+                .register(meterRegistry);
+        Gauge.builder("notification.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Idade da notificação pendente mais antiga")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("notification.outbox.sent")
+                .description("Notificações entregues")
+                .register(meterRegistry);
+        retryCounter = Counter.builder("notification.outbox.retries")
+                .description("Falhas de entrega reagendadas")
+                .register(meterRegistry);
+        exhaustedCounter = Counter.builder("notification.outbox.exhausted")
+                .description("Notificações descartadas após esgotar as tentativas")
+                .register(meterRegistry);
+        deferredCounter = Counter.builder("notification.outbox.deferred")
+                .description("Notificações adiadas sem contar tentativa")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserva as notificações vencidas e dispara as chamadas agrupadas.
+     * Com o circuito aberto, nem chega a consultar a outbox.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:500}")
+    public void dispatchPending() {
+        try {
+            if (notificationService.isCircuitOpen()) {
+                return;
+            }
+
+            List<NotificationOutbox> due = outboxService.claimDue(batchSize);
+            for (int from = 0; from < due.size(); from += coalesceMaxSize) {
+                dispatch(due.subList(from, Math.min(from + coalesceMaxSize, due.size())));
+            }
+        } catch (Exception e) {
+            log.error("Erro ao processar outbox de notificações", e);
+        } finally {
+            refreshMetrics();
+        }
+    }
+
+    private void dispatch(List<NotificationOutbox> group) {
+        List<String> ids = group.stream().map(NotificationOutbox::getId).toList();
+        List<String> payloads = group.stream().map(NotificationOutbox::getPayload).toList();
+
+        notificationService.deliverBatch(payloads).whenComplete((result, error) -> {
+            try {
+                if (error != null) {
+                    handleFailure(ids, error.getMessage());
+                    return;
+                }
+                switch (result) {
+                    case DELIVERED -> {
+                        outboxService.markSent(ids);
+                        sentCounter.increment(ids.size());
+                        log.info("{} notificação(ões) enviada(s) com sucesso", ids.size());
+                    }
+                    case REJECTED -> {
+                        outboxService.defer(ids, shedDelayMs);
+                        deferredCounter.increment(ids.size());
+                    }
+                    default -> handleFailure(ids, "Falha na entrega à Cloud Function");
+                }
+            } catch (Exception e) {
+                // A lease da reserva garante nova tentativa mesmo sem atualizar o status
+                log.error("Erro ao atualizar status da outbox", e);
+            }
+        });
+    }
+
+    private void handleFailure(List<String> ids, String error) {
+        int exhausted = outboxService.markFailed(ids, error);
+        if (exhausted > 0) {
+            exhaustedCounter.increment(exhausted);
+        }
+        retryCounter.increment(ids.size() - exhausted);
+    }
+
+    private void refreshMetrics() {
+        try {
+            backlog.set(outboxService.countPending());
+            LocalDateTime oldest = outboxService.oldestPendingCreatedAt();
+            lagSeconds.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+        } catch (Exception e) {
+            log.warn("Não foi possível atualizar as métricas da outbox", e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.feedback.system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.feedback.system.model.Feedback;
+import com.feedback.system.model.NotificationOutbox;
+import com.feedback.system.repository.NotificationOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Serviço da outbox de notificações.
+ * Registra notificações na transação do feedback e controla o ciclo
+ * de entrega (reserva, sucesso e novas tentativas com backoff exponencial).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationService notificationService;
+
+    @Value("${notification.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${notification.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${notification.outbox.lease-ms:30000}")
+    private long leaseMs;
+
+    /**
+     * Registra a notificação de um feedback urgente.
+     * Deve ser chamado dentro da transação que grava o feedback.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Feedback feedback) {
+        outboxRepository.save(toOutbox(feedback));
+    }
+
+    /**
+     * Registra as notificações de vários feedbacks urgentes na transação corrente.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(Collection<Feedback> feedbacks) {
+        List<NotificationOutbox> entries = new ArrayList<>(feedbacks.size());
+        for (Feedback feedback : feedbacks) {
+            entries.add(toOutbox(feedback));
+        }
+        outboxRepository.saveAll(entries);
+    }
+
+    /**
+     * Reserva até {@code limit} entradas vencidas para entrega.
+     * A reserva adia a próxima tentativa pelo tempo de lease, de modo que
+     * uma instância que caia no meio da entrega não bloqueie a notificação.
+     */
+    @Transactional
+    public List<NotificationOutbox> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> due = outboxRepository.findDueForUpdate(
+                NotificationOutbox.Status.PENDING, now, PageRequest.of(0, limit));
+
+        LocalDateTime leaseUntil = now.plus(Duration.ofMillis(leaseMs));
+        due.forEach(entry -> entry.setNextAttemptAt(leaseUntil));
+        return due;
+    }
+
+    /**
+     * Marca as entradas como entregues.
+     */
+    @Transactional
+    public void markSent(Collection<String> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.findAllById(ids).forEach(entry -> {
+            entry.setStatus(NotificationOutbox.Status.SENT);
+            entry.setSentAt(now);
+            entry.setLastError(null);
+        });
+    }
+
+    /**
+     * Devolve entradas reservadas à fila sem contar tentativa.
+     * Usado quando a entrega foi recusada localmente (bulkhead ou circuito aberto).
+     */
+    @Transactional
+    public void defer(Collection<String> ids, long delayMs) {
+        LocalDateTime nextAttempt = LocalDateTime.now().plus(Duration.ofMillis(delayMs));
+        outboxRepository.findAllById(ids).forEach(entry -> entry.setNextAttemptAt(nextAttempt));
+    }
+
+    /**
+     * Registra a falha de entrega e agenda nova tentativa com backoff exponencial.
+     * Após o número máximo de tentativas, a entrada é marcada como FAILED.
+     *
+     * @return número de entradas que esgotaram as tentativas
+     */
+    @Transactional
+    public int markFailed(Collection<String> ids, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        int exhausted = 0;
+
+        for (NotificationOutbox entry : outboxRepository.findAllById(ids)) {
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            entry.setLastError(truncate(error));
+
+            if (attempts >= maxAttempts) {
+                entry.setStatus(NotificationOutbox.Status.FAILED);
+                exhausted++;
+                log.error("Notificação do feedback {} descartada após {} tentativas", entry.getFeedbackId(), attempts);
+            } else {
+                entry.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMs(attempts))));
+            }
+        }
+        return exhausted;
+    }
+
+    /**
+     * Quantidade de notificações pendentes.
+     */
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return outboxRepository.countByStatus(NotificationOutbox.Status.PENDING);
+    }
+
+    /**
+     * Data de criação da notificação pendente mais antiga, ou null se não houver.
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime oldestPendingCreatedAt() {
+        return outboxRepository.findFirstByStatusOrderByCreatedAtAsc(NotificationOutbox.Status.PENDING)
+                .map(NotificationOutbox::getCreatedAt)
+                .orElse(null);
+    }
+
+    private long backoffMs(int attempts) {
+        long backoff = initialBackoffMs << Math.min(attempts - 1, 30);
+        return Math.min(backoff, maxBackoffMs);
+    }
+
+    private NotificationOutbox toOutbox(Feedback feedback) {
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setFeedbackId(feedback.getId());
+        try {
+            entry.setPayload(notificationService.buildUrgentFeedbackPayload(feedback));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao montar payload da notificação", e);
+        }
+        return entry;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= 1000) {
+            return error;
+        }
+        return error.substring(0, 1000);
+    }
+}
@@ -1,7 +1,16 @@
 package com.feedback.system.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.feedback.system.config.ExecutionMode;
 import com.feedback.system.model.Feedback;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
@@ -10,74 +19,226 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Serviço para envio de notificações.
  * Chama a Cloud Function de notificação quando houver feedback urgente.
+ * As entregas são disparadas pelo NotificationOutboxDispatcher, limitadas por
+ * um bulkhead (máximo de chamadas simultâneas) e protegidas por circuit breaker.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
 
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    /**
+     * Resultado de uma entrega à Cloud Function.
+     */
+    public enum DeliveryResult {
+        DELIVERED,
+        FAILED,
+        REJECTED
+    }
+
     @Value("${cloud.function.notification.url:http://localhost:8081/notify}")
     private String notificationFunctionUrl;
 
+    @Value("${notification.http.max-in-flight:8}")
+    private int maxInFlight;
+
+    @Value("${notification.http.max-idle-connections:4}")
+    private int maxIdleConnections;
+
+    @Value("${notification.http.keep-alive-ms:300000}")
+    private long keepAliveMs;
+
+    @Value("${notification.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${notification.http.call-timeout-ms:10000}")
+    private long callTimeoutMs;
+
+    @Value("${notification.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${notification.circuit.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    private final MeterRegistry meterRegistry;
+    private final ExecutionMode executionMode;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final OkHttpClient httpClient = new OkHttpClient();
+
+    private OkHttpClient httpClient;
+    private Semaphore bulkhead;
+    private CircuitBreaker circuitBreaker;
+
+    private DistributionSummary batchSizeSummary;
+    private Counter deliveredCounter;
+    private Counter failedCounter;
+    private Counter shedCounter;
+    private Timer successTimer;
+    private Timer httpErrorTimer;
+    private Timer ioErrorTimer;
+
+    @PostConstruct
+    void init() {
+        // Mesmo formato do executor padrão do OkHttp; no modo de threads virtuais,
+        // as chamadas e os callbacks (que atualizam a outbox via JDBC) rodam em threads virtuais
+        Dispatcher dispatcher = new Dispatcher(new ThreadPoolExecutor(
+                0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                executionMode.threadFactory("notification-http-")));
+        dispatcher.setMaxRequests(maxInFlight);
+        dispatcher.setMaxRequestsPerHost(maxInFlight);
+
+        // Novas tentativas ficam a cargo da outbox; o cliente não repete chamadas
+        httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMs, TimeUnit.MILLISECONDS))
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .callTimeout(callTimeoutMs, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(false)
+                .build();
+        bulkhead = new Semaphore(maxInFlight);
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+
+        Gauge.builder("notification.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+                .description("Estado do circuit breaker (0 = fechado, 1 = meio aberto, 2 = aberto)")
+                .register(meterRegistry);
+        Gauge.builder("notification.http.in-flight", bulkhead, b -> maxInFlight - b.availablePermits())
+                .description("Chamadas de notificação em andamento")
+                .register(meterRegistry);
+        Gauge.builder("notification.http.queued", dispatcher, Dispatcher::queuedCallsCount)
+                .description("Chamadas de notificação aguardando conexão no OkHttp")
+                .register(meterRegistry);
+        successTimer = roundTripTimer("success");
+        httpErrorTimer = roundTripTimer("http_error");
+        ioErrorTimer = roundTripTimer("io_error");
+        batchSizeSummary = DistributionSummary.builder("notification.batch.size")
+                .description("Notificações agrupadas por chamada")
+                .register(meterRegistry);
+        deliveredCounter = Counter.builder("notification.delivered")
+                .description("Notificações entregues à Cloud Function")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("notification.failed")
+                .description("Notificações cuja entrega falhou")
+                .register(meterRegistry);
+        shedCounter = Counter.builder("notification.shed")
+                .description("Notificações adiadas pelo bulkhead ou circuit breaker")
+                .register(meterRegistry);
+    }
+
+    private Timer roundTripTimer(String outcome) {
+        return Timer.builder("notification.http.round-trip")
+                .description("Tempo de ida e volta da chamada à Cloud Function de notificação")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
 
     /**
-     * Envia notificação de feedback urgente para a Cloud Function.
+     * Monta o payload JSON da notificação de feedback urgente.
      */
-    public void sendUrgentFeedbackNotification(Feedback feedback) {
-        try {
-            log.info("Preparando notificação para feedback urgente ID: {}", feedback.getId());
-
-            // Monta o payload da notificação
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("feedbackId", feedback.getId());
-            payload.put("studentName", feedback.getStudentName());
-            payload.put("studentEmail", feedback.getStudentEmail());
-            payload.put("course", feedback.getCourse());
-            payload.put("rating", feedback.getRating());
-            payload.put("comment", feedback.getComment());
-            payload.put("createdAt", feedback.getCreatedAt().toString());
-
-            String jsonPayload = objectMapper.writeValueAsString(payload);
-
-            // Cria a requisição HTTP
-            RequestBody body = RequestBody.create(
-                    jsonPayload,
-                    MediaType.get("application/json; charset=utf-8")
-            );
-
-            Request request = new Request.Builder()
-                    .url(notificationFunctionUrl)
-                    .post(body)
-                    .build();
-
-            // Envia a requisição de forma assíncrona
-            httpClient.newCall(request).enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, IOException e) {
-                    log.error("Erro ao enviar notificação para Cloud Function", e);
-                }
+    public String buildUrgentFeedbackPayload(Feedback feedback) throws JsonProcessingException {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("feedbackId", feedback.getId());
+        payload.put("studentName", feedback.getStudentName());
+        payload.put("studentEmail", feedback.getStudentEmail());
+        payload.put("course", feedback.getCourse());
+        payload.put("rating", feedback.getRating());
+        payload.put("comment", feedback.getComment());
+        payload.put("createdAt", feedback.getCreatedAt().toString());
+
+        return objectMapper.writeValueAsString(payload);
+    }
+
+    /**
+     * Indica se o circuit breaker está recusando entregas no momento.
+     */
+    public boolean isCircuitOpen() {
+        return circuitBreaker.isRejecting();
+    }
+
+    /**
+     * Entrega um grupo de payloads em uma única chamada (array JSON).
+     * Retorna REJECTED sem chamar a função quando o bulkhead está cheio
+     * ou o circuito está aberto.
+     */
+    public CompletableFuture<DeliveryResult> deliverBatch(List<String> payloads) {
+        if (!bulkhead.tryAcquire()) {
+            shedCounter.increment(payloads.size());
+            return CompletableFuture.completedFuture(DeliveryResult.REJECTED);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            shedCounter.increment(payloads.size());
+            return CompletableFuture.completedFuture(DeliveryResult.REJECTED);
+        }
+
+        String jsonPayload = payloads.size() == 1
+                ? payloads.get(0)
+                : "[" + String.join(",", payloads) + "]";
+
+        Request request = new Request.Builder()
+                .url(notificationFunctionUrl)
+                .post(RequestBody.create(jsonPayload, JSON))
+                .build();
 
-                @Override
-                public void onResponse(Call call, Response response) throws IOException {
+        batchSizeSummary.record(payloads.size());
+        CompletableFuture<DeliveryResult> result = new CompletableFuture<>();
+        long start = System.nanoTime();
+
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                ioErrorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                bulkhead.release();
+                circuitBreaker.onFailure();
+                failedCounter.increment(payloads.size());
+                log.error("Erro ao enviar notificação para Cloud Function", e);
+                result.complete(DeliveryResult.FAILED);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    bulkhead.release();
+                    Timer timer = response.isSuccessful() ? successTimer : httpErrorTimer;
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                     if (response.isSuccessful()) {
-                        log.info("Notificação enviada com sucesso para feedback ID: {}", feedback.getId());
+                        circuitBreaker.onSuccess();
+                        deliveredCounter.increment(payloads.size());
+                        result.complete(DeliveryResult.DELIVERED);
+                        return;
+                    }
+
+                    // 5xx e 429 indicam função indisponível; outros 4xx são erro do payload
+                    if (response.code() >= 500 || response.code() == 429) {
+                        circuitBreaker.onFailure();
                     } else {
-                        log.error("Erro ao enviar notificação. Status: {}", response.code());
+                        circuitBreaker.onSuccess();
                     }
-                    response.close();
+                    failedCounter.increment(payloads.size());
+                    log.error("Erro ao enviar notificação. Status: {}", response.code());
+                    result.complete(DeliveryResult.FAILED);
                 }
-            });
+            }
+        });
 
-        } catch (Exception e) {
-            log.error("Erro ao preparar notificação", e);
-        }
+        return result;
     }
 
     /**
@@ -0,0 +1,95 @@
+package com.feedback.system.service;
+
+import com.feedback.system.repository.FeedbackPartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+
+/**
+ * Manutenção das partições mensais de feedbacks (PostgreSQL).
+ * Garante a partição padrão e as partições do mês atual e dos próximos meses
+ * e arquiva as partições mais antigas que o período de retenção.
+ * Linhas que caem na partição padrão (datas sem partição mensal) não são arquivadas.
+ * Ativada por feedback.partitioning.enabled, depois de executar db/postgres/partition-feedbacks.sql.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceService {
+
+    private final FeedbackPartitionRepository partitionRepository;
+    private final FeedbackArchiveService archiveService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${feedback.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${feedback.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${feedback.partitioning.retention-months:24}")
+    private int retentionMonths;
+
+    private volatile boolean active;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startup() {
+        if (!enabled) {
+            return;
+        }
+        active = partitionRepository.isPartitioned();
+        if (!active) {
+            log.warn("feedback.partitioning.enabled=true, mas a tabela feedbacks não é particionada. "
+                    + "Execute db/postgres/partition-feedbacks.sql no PostgreSQL");
+            return;
+        }
+        maintain();
+    }
+
+    /**
+     * Cria as partições futuras e arquiva as expiradas. Executada diariamente.
+     * Com várias instâncias, FeedbackArchiveService.archive ignora meses já registrados
+     * em feedback_archives, e um DETACH concorrente da mesma partição falha na segunda instância.
+     */
+    @Scheduled(cron = "${feedback.partitioning.cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!active) {
+            return;
+        }
+        try {
+            ensureUpcomingPartitions();
+            archiveService.resumePending();
+            archiveExpiredPartitions();
+        } catch (Exception e) {
+            log.error("Erro na manutenção das partições de feedbacks", e);
+        }
+    }
+
+    private void ensureUpcomingPartitions() {
+        partitionRepository.createDefaultPartition();
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            transactionTemplate.executeWithoutResult(status -> partitionRepository.createPartition(month));
+        }
+    }
+
+    private void archiveExpiredPartitions() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        for (String partition : partitionRepository.findAttachedPartitions()) {
+            if (FeedbackPartitionRepository.monthOf(partition).isBefore(oldestKept)) {
+                archiveService.archive(partition);
+            }
+        }
+    }
+}
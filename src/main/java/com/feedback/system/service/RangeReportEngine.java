@@ -0,0 +1,359 @@
+package com.feedback.system.service;
+
+import com.feedback.system.dto.FeedbackCursor;
+import com.feedback.system.repository.FeedbackScanRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Agregação paralela de feedbacks por intervalo de datas, com filtro de curso e
+ * agrupamento por dia, semana, mês ou curso.
+ * O intervalo é dividido em blocos de chunk-size linhas pela chave (created_at, id):
+ * cada limite sai de uma consulta só no índice, e o bloco é disparado no pool
+ * fork-join assim que o limite é encontrado. Cada bloco é lido em streaming (fetch size)
+ * na própria transação e somado em contadores primitivos que cobrem só os grupos
+ * do bloco; os parciais são mesclados ao final. O heap usado não depende da quantidade
+ * de linhas, e o paralelismo (conexões simultâneas) é limitado por feedback.report.range.parallelism;
+ * com 0, usa o menor entre os núcleos da máquina e metade do pool de conexões, deixando a
+ * outra metade para as requisições.
+ * Meses já arquivados não estão no banco e não entram na agregação. Feedbacks antigos sem
+ * course_id usam o catálogo só para leitura; curso ainda fora do catálogo é agrupado pelo nome.
+ */
+@Service
+@RequiredArgsConstructor
+public class RangeReportEngine {
+
+    /**
+     * Contadores por grupo: [0] urgentes, [1..5] feedbacks por nota.
+     */
+    private static final int STRIDE = 6;
+
+    private final FeedbackScanRepository feedbackScanRepository;
+    private final CourseCatalog courseCatalog;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${feedback.report.range.chunk-size:100000}")
+    private int chunkSize;
+
+    @Value("${feedback.report.range.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${feedback.report.range.parallelism:0}")
+    private int parallelism;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    private ForkJoinPool pool;
+    private TransactionTemplate readOnly;
+
+    public enum GroupBy {
+        DAY,
+        WEEK,
+        MONTH,
+        COURSE
+    }
+
+    /**
+     * Totais de um grupo; key é a data (DAY), a segunda-feira da semana (WEEK),
+     * o mês yyyy-MM (MONTH) ou o nome do curso (COURSE, com courseId; null se o curso
+     * ainda não está no catálogo).
+     */
+    public record Group(String key, Integer courseId, long[] ratings, long urgent) {
+
+        public long total() {
+            long total = 0;
+            for (int rating = 1; rating <= 5; rating++) {
+                total += ratings[rating];
+            }
+            return total;
+        }
+
+        public double averageRating() {
+            long total = total();
+            if (total == 0) {
+                return 0.0;
+            }
+            long sum = 0;
+            for (int rating = 1; rating <= 5; rating++) {
+                sum += rating * ratings[rating];
+            }
+            return (double) sum / total;
+        }
+
+        public long critical() {
+            return ratings[1] + ratings[2];
+        }
+    }
+
+    /**
+     * Resultado da agregação: grupos em ordem (vazios omitidos), linhas lidas e blocos processados.
+     */
+    public record Result(List<Group> groups, long rows, int chunks) {
+    }
+
+    @PostConstruct
+    void init() {
+        if (parallelism <= 0) {
+            parallelism = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), connectionPoolSize / 2));
+        }
+        pool = new ForkJoinPool(parallelism);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Agrega os feedbacks dos dias [from, to] (inclusivo), opcionalmente de um único curso.
+     */
+    public Result aggregate(LocalDate from, LocalDate to, Integer courseId, GroupBy groupBy) {
+        Grouping grouping = new Grouping(from, groupBy);
+        RangeTask task = new RangeTask(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), courseId, grouping);
+        Counts counts = pool.invoke(task);
+        return new Result(toGroups(counts, grouping), counts.rows, task.chunks);
+    }
+
+    private List<Group> toGroups(Counts counts, Grouping grouping) {
+        List<Group> groups = new ArrayList<>();
+        for (int index = 0; index < counts.groupCount(); index++) {
+            int offset = index * STRIDE;
+            long[] ratings = new long[6];
+            System.arraycopy(counts.values, offset, ratings, 0, STRIDE);
+            long urgent = ratings[0];
+            ratings[0] = 0;
+            if (urgent == 0 && ratings[1] + ratings[2] + ratings[3] + ratings[4] + ratings[5] == 0) {
+                continue;
+            }
+            int group = counts.base + index;
+            if (grouping.groupBy == GroupBy.COURSE) {
+                groups.add(new Group(courseCatalog.nameOf(group).orElse("#" + group), group, ratings, urgent));
+            } else {
+                groups.add(new Group(grouping.key(group), null, ratings, urgent));
+            }
+        }
+        counts.byName.forEach((name, values) -> {
+            long[] ratings = values.clone();
+            ratings[0] = 0;
+            groups.add(new Group(name, null, ratings, values[0]));
+        });
+        return groups;
+    }
+
+    /**
+     * Tarefa raiz: encontra os limites dos blocos e dispara um ChunkTask por bloco.
+     */
+    private final class RangeTask extends RecursiveTask<Counts> {
+
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final Integer courseId;
+        private final Grouping grouping;
+        private int chunks;
+
+        RangeTask(LocalDateTime from, LocalDateTime to, Integer courseId, Grouping grouping) {
+            this.from = from;
+            this.to = to;
+            this.courseId = courseId;
+            this.grouping = grouping;
+        }
+
+        @Override
+        protected Counts compute() {
+            List<ChunkTask> forked = new ArrayList<>();
+            FeedbackCursor lower = null;
+            do {
+                FeedbackCursor upper = feedbackScanRepository.chunkBoundary(from, to, courseId, lower, chunkSize);
+                ChunkTask chunk = new ChunkTask(this, lower, upper);
+                chunk.fork();
+                forked.add(chunk);
+                lower = upper;
+            } while (lower != null);
+            chunks = forked.size();
+
+            Counts total = new Counts();
+            for (ChunkTask chunk : forked) {
+                total.merge(chunk.join());
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Lê um bloco (after, upTo] em streaming e soma nos contadores do bloco.
+     */
+    private final class ChunkTask extends RecursiveTask<Counts> {
+
+        private final RangeTask range;
+        private final FeedbackCursor after;
+        private final FeedbackCursor upTo;
+
+        ChunkTask(RangeTask range, FeedbackCursor after, FeedbackCursor upTo) {
+            this.range = range;
+            this.after = after;
+            this.upTo = upTo;
+        }
+
+        @Override
+        protected Counts compute() {
+            Counts counts = new Counts();
+            Grouping grouping = range.grouping;
+            readOnly.executeWithoutResult(status -> feedbackScanRepository.scanRange(range.from, range.to,
+                    range.courseId, after, upTo, fetchSize, rs -> {
+                        int group;
+                        if (grouping.groupBy == GroupBy.COURSE) {
+                            group = rs.getInt("course_id");
+                            if (rs.wasNull()) {
+                                String name = rs.getString("course");
+                                Optional<Integer> known = courseCatalog.findId(name);
+                                if (known.isEmpty()) {
+                                    counts.addByName(name, rs.getInt("rating"), rs.getBoolean("urgent"));
+                                    return;
+                                }
+                                group = known.get();
+                            }
+                        } else {
+                            group = grouping.group(rs.getTimestamp("created_at"));
+                        }
+                        counts.add(group, rs.getInt("rating"), rs.getBoolean("urgent"));
+                    }));
+            return counts;
+        }
+    }
+
+    /**
+     * Converte datas em índices de grupo (0 = grupo de from) e índices de volta em chaves.
+     */
+    private static final class Grouping {
+
+        private final GroupBy groupBy;
+        private final long firstEpochDay;
+        private final long firstWeekEpochDay;
+        private final int firstMonth;
+
+        Grouping(LocalDate from, GroupBy groupBy) {
+            this.groupBy = groupBy;
+            this.firstEpochDay = from.toEpochDay();
+            this.firstWeekEpochDay = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay();
+            this.firstMonth = from.getYear() * 12 + from.getMonthValue() - 1;
+        }
+
+        int group(Timestamp createdAt) {
+            LocalDate day = createdAt.toLocalDateTime().toLocalDate();
+            return switch (groupBy) {
+                case DAY -> (int) (day.toEpochDay() - firstEpochDay);
+                case WEEK -> (int) ((day.toEpochDay() - firstWeekEpochDay) / 7);
+                case MONTH -> day.getYear() * 12 + day.getMonthValue() - 1 - firstMonth;
+                case COURSE -> throw new IllegalStateException("Agrupamento por curso usa o course_id");
+            };
+        }
+
+        String key(int group) {
+            return switch (groupBy) {
+                case DAY -> LocalDate.ofEpochDay(firstEpochDay + group).toString();
+                case WEEK -> LocalDate.ofEpochDay(firstWeekEpochDay + 7L * group).toString();
+                case MONTH -> YearMonth.of((firstMonth + group) / 12, (firstMonth + group) % 12 + 1).toString();
+                case COURSE -> Integer.toString(group);
+            };
+        }
+    }
+
+    /**
+     * Contadores de um bloco em um único long[]: STRIDE posições por grupo, a partir
+     * do grupo base. Cresce nas duas direções, então cobre só os grupos vistos no bloco.
+     * Cursos fora do catálogo ficam em byName, com o mesmo layout de STRIDE posições.
+     */
+    private static final class Counts {
+
+        private long[] values = new long[0];
+        private final Map<String, long[]> byName = new HashMap<>();
+        private int base;
+        private long rows;
+
+        int groupCount() {
+            return values.length / STRIDE;
+        }
+
+        void add(int group, int rating, boolean urgent) {
+            rows++;
+            if (rating < 1 || rating > 5) {
+                return;
+            }
+            int offset = offset(group);
+            values[offset + rating]++;
+            if (urgent) {
+                values[offset]++;
+            }
+        }
+
+        void addByName(String course, int rating, boolean urgent) {
+            rows++;
+            if (rating < 1 || rating > 5) {
+                return;
+            }
+            long[] counts = byName.computeIfAbsent(course, key -> new long[STRIDE]);
+            counts[rating]++;
+            if (urgent) {
+                counts[0]++;
+            }
+        }
+
+        void merge(Counts other) {
+            rows += other.rows;
+            other.byName.forEach((course, counts) -> {
+                long[] target = byName.computeIfAbsent(course, key -> new long[STRIDE]);
+                for (int slot = 0; slot < STRIDE; slot++) {
+                    target[slot] += counts[slot];
+                }
+            });
+            for (int index = 0; index < other.groupCount(); index++) {
+                int source = index * STRIDE;
+                int target = offset(other.base + index);
+                for (int slot = 0; slot < STRIDE; slot++) {
+                    values[target + slot] += other.values[source + slot];
+                }
+            }
+        }
+
+        private int offset(int group) {
+            if (values.length == 0) {
+                base = group;
+                values = new long[16 * STRIDE];
+            } else if (group < base) {
+                int shift = Math.max(base - group, groupCount());
+                long[] grown = new long[values.length + shift * STRIDE];
+                System.arraycopy(values, 0, grown, shift * STRIDE, values.length);
+                values = grown;
+                base -= shift;
+            } else if ((group - base) * STRIDE >= values.length) {
+                int needed = (group - base + 1) * STRIDE;
+                long[] grown = new long[Math.max(needed, values.length * 2)];
+                System.arraycopy(values, 0, grown, 0, values.length);
+                values = grown;
+            }
+            return (group - base) * STRIDE;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.feedback.system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.feedback.system.dto.ReportJobResponse;
+import com.feedback.system.model.ReportJob;
+import com.feedback.system.repository.DailyFeedbackCount;
+import com.feedback.system.repository.FeedbackRollupRepository;
+import com.feedback.system.repository.ReportJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Relatórios como jobs: o pedido grava o job e retorna de imediato; a geração roda
+ * no executor limitado do ReportService e o resultado fica gravado no banco.
+ * Pedidos iguais (mesmo tipo e período) enquanto o job está em andamento recebem o mesmo job.
+ * Relatórios de períodos fechados (terminados antes de hoje) são reaproveitados enquanto o
+ * total de feedbacks do período nos rollups não mudar; uma importação com datas antigas
+ * gera o relatório de novo.
+ * A deduplicação de jobs em andamento é por instância; o reaproveitamento vale entre instâncias.
+ * As transições de status são atualizações condicionais: um job encerrado pela limpeza
+ * (instância lenta ou reiniciada) não volta a RUNNING nem é sobrescrito ao terminar.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobService {
+
+    private static final int WEEK_DAYS = 7;
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportService reportService;
+    private final FeedbackRollupRepository feedbackRollupRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feedback.report.jobs.retention-hours:168}")
+    private int retentionHours;
+
+    @Value("${feedback.report.jobs.timeout-minutes:30}")
+    private int timeoutMinutes;
+
+    /**
+     * Jobs em andamento nesta instância, pela chave de deduplicação.
+     */
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("report.jobs.in_flight", inFlight, Map::size)
+                .description("Jobs de relatório pendentes ou em geração nesta instância")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relatório semanal: os 7 dias até hoje ou, com closed, os 7 dias até ontem (período fechado).
+     */
+    public ReportJobResponse submitWeekly(boolean closed) {
+        LocalDate lastDay = closed ? LocalDate.now().minusDays(1) : LocalDate.now();
+        return submit(ReportJob.Type.WEEKLY, lastDay.minusDays(WEEK_DAYS - 1), lastDay,
+                () -> reportService.generateWeeklyReport(lastDay));
+    }
+
+    /**
+     * Relatório completo (todo o histórico até agora, nunca fechado).
+     */
+    public ReportJobResponse submitFull() {
+        return submit(ReportJob.Type.FULL, null, null, reportService::generateFullReport);
+    }
+
+    private ReportJobResponse submit(ReportJob.Type type, LocalDate from, LocalDate to,
+                                     Supplier<Map<String, Object>> generator) {
+        String dedupKey = type + (from != null ? ":" + from + ":" + to : "");
+        Long periodTotal = null;
+
+        if (to != null && to.isBefore(LocalDate.now())) {
+            long total = periodTotal(from, to);
+            Optional<ReportJob> stored = reportJobRepository
+                    .findFirstByDedupKeyAndStatusOrderByFinishedAtDesc(dedupKey, ReportJob.Status.COMPLETED)
+                    .filter(job -> job.getPeriodTotal() != null && job.getPeriodTotal() == total);
+            if (stored.isPresent()) {
+                countRequest("stored");
+                return toResponse(stored.get());
+            }
+            periodTotal = total;
+        }
+
+        String running = inFlight.get(dedupKey);
+        if (running != null) {
+            return deduplicated(running);
+        }
+
+        // Gravado fora do mapa: o lock do ConcurrentHashMap não fica preso durante o I/O
+        ReportJob job = new ReportJob();
+        job.setType(type);
+        job.setPeriodStart(from);
+        job.setPeriodEnd(to);
+        job.setDedupKey(dedupKey);
+        job.setPeriodTotal(periodTotal);
+        job = reportJobRepository.save(job);
+
+        running = inFlight.putIfAbsent(dedupKey, job.getId());
+        if (running != null) {
+            // Outro pedido igual registrou o job primeiro
+            reportJobRepository.deleteById(job.getId());
+            return deduplicated(running);
+        }
+
+        // Resposta montada antes de o job passar para a thread do executor
+        ReportJobResponse response = toResponse(job);
+        ReportJob submitted = job;
+        try {
+            reportService.submit(() -> {
+                run(submitted, generator);
+                return null;
+            });
+        } catch (ResponseStatusException e) {
+            finish(job, ReportJob.Status.PENDING, ReportJob.Status.FAILED, null, "Executor de relatórios cheio");
+            throw e;
+        }
+        countRequest("created");
+        log.info("Job de relatório {} criado ({})", job.getId(), dedupKey);
+        return response;
+    }
+
+    private ReportJobResponse deduplicated(String jobId) {
+        countRequest("deduplicated");
+        return reportJobRepository.findById(jobId).map(this::toResponse).orElseThrow(
+                () -> new IllegalStateException("Job de relatório em andamento não encontrado: " + jobId));
+    }
+
+    private void run(ReportJob job, Supplier<Map<String, Object>> generator) {
+        Integer started = transactionTemplate.execute(status -> reportJobRepository.start(job.getId(),
+                ReportJob.Status.PENDING, ReportJob.Status.RUNNING, LocalDateTime.now()));
+        if (started == null || started == 0) {
+            log.warn("Job de relatório {} encerrado antes de iniciar", job.getId());
+            inFlight.remove(job.getDedupKey(), job.getId());
+            return;
+        }
+        try {
+            String result = objectMapper.writeValueAsString(generator.get());
+            finish(job, ReportJob.Status.RUNNING, ReportJob.Status.COMPLETED, result, null);
+        } catch (Exception e) {
+            log.error("Erro ao gerar o relatório do job {}", job.getId(), e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            finish(job, ReportJob.Status.RUNNING, ReportJob.Status.FAILED, null,
+                    message.length() > 1000 ? message.substring(0, 1000) : message);
+        }
+    }
+
+    /**
+     * Encerra o job se ele ainda estiver em {@code expected}.
+     */
+    private void finish(ReportJob job, ReportJob.Status expected, ReportJob.Status status, String result,
+                        String error) {
+        try {
+            Integer updated = transactionTemplate.execute(tx -> reportJobRepository.finish(job.getId(), expected,
+                    status, result, error, LocalDateTime.now()));
+            if (updated == null || updated == 0) {
+                log.warn("Job de relatório {} já encerrado pela limpeza; resultado descartado", job.getId());
+            }
+        } finally {
+            inFlight.remove(job.getDedupKey(), job.getId());
+        }
+    }
+
+    /**
+     * Consulta um job; 404 se não existir (ou já tiver sido removido pela retenção).
+     */
+    public ReportJobResponse getJob(String id) {
+        return toResponse(reportJobRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Job de relatório não encontrado")));
+    }
+
+    private ReportJobResponse toResponse(ReportJob job) {
+        try {
+            return new ReportJobResponse(job.getId(), job.getType(), job.getStatus(), job.getPeriodStart(),
+                    job.getPeriodEnd(), job.getCreatedAt(), job.getFinishedAt(),
+                    job.getResult() != null ? objectMapper.readTree(job.getResult()) : null, job.getError());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resultado inválido no job de relatório " + job.getId(), e);
+        }
+    }
+
+    /**
+     * Encerra jobs presos (instância reiniciada durante a geração) e remove os antigos.
+     */
+    @Scheduled(cron = "${feedback.report.jobs.cleanup-cron:0 45 * * * *}")
+    @Transactional
+    public void cleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        int stale = reportJobRepository.failStale(EnumSet.of(ReportJob.Status.PENDING, ReportJob.Status.RUNNING),
+                now.minusMinutes(timeoutMinutes), ReportJob.Status.FAILED, now, "Geração interrompida");
+        int deleted = reportJobRepository.deleteFinishedBefore(now.minusHours(retentionHours));
+        if (stale > 0 || deleted > 0) {
+            log.info("Jobs de relatório: {} interrompido(s), {} removido(s)", stale, deleted);
+        }
+    }
+
+    private long periodTotal(LocalDate from, LocalDate to) {
+        long total = 0;
+        for (DailyFeedbackCount count : feedbackRollupRepository.countByDayBetween(from, to)) {
+            total += count.getTotal() != null ? count.getTotal() : 0L;
+        }
+        return total;
+    }
+
+    private void countRequest(String outcome) {
+        meterRegistry.counter("report.jobs.requests", "outcome", outcome).increment();
+    }
+}
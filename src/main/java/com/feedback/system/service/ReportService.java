@@ -1,65 +1,131 @@
 package com.feedback.system.service;
 
-import com.feedback.system.dto.FeedbackResponse;
-import com.feedback.system.model.Feedback;
+import com.feedback.system.config.ExecutionMode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Serviço para geração de relatórios.
+ * As estatísticas são somadas a partir dos rollups diários por curso.
+ * Cada relatório registra o tempo de geração (report.generate) e as linhas lidas (report.rows.scanned).
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReportService {
 
+    private static final int WEEK_DAYS = 7;
+
     private final FeedbackService feedbackService;
+    private final FeedbackRollupService feedbackRollupService;
+    private final FeedbackArchiveService feedbackArchiveService;
+    private final HistoricalReportEngine historicalReportEngine;
+    private final RangeReportEngine rangeReportEngine;
+    private final MeterRegistry meterRegistry;
+    private final ExecutionMode executionMode;
+
+    @Value("${feedback.report.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${feedback.report.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${feedback.report.range.max-days:400}")
+    private int rangeMaxDays;
+
+    private final Map<String, AtomicLong> rowsScanned = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
 
     /**
-     * Gera relatório semanal com estatísticas de feedbacks.
+     * Executor dos relatórios, limitado para não esgotar o pool de conexões.
+     * No modo de threads virtuais as threads do executor são virtuais.
      */
-    public Map<String, Object> generateWeeklyReport() {
-        log.info("Gerando relatório semanal");
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(
+                maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                executionMode.threadFactory("report-"));
+    }
 
-        List<Feedback> weeklyFeedbacks = feedbackService.getLastWeekFeedbacks();
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
 
-        Map<String, Object> report = new HashMap<>();
-        report.put("reportGeneratedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-        report.put("periodStart", LocalDateTime.now().minusWeeks(1).format(DateTimeFormatter.ISO_DATE_TIME));
-        report.put("periodEnd", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+    /**
+     * Gera um relatório no executor de relatórios, fora da thread da requisição.
+     * Com o executor e a fila cheios, responde 503.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> report) {
+        try {
+            return CompletableFuture.supplyAsync(report, executor);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Muitos relatórios em geração, tente novamente");
+        }
+    }
 
-        // Estatísticas gerais
-        report.put("totalFeedbacks", weeklyFeedbacks.size());
-        report.put("urgentFeedbacks", weeklyFeedbacks.stream().filter(Feedback::isUrgent).count());
+    /**
+     * Gera relatório semanal com estatísticas de feedbacks.
+     * Os totais vêm dos rollups diários dos 7 dias terminados em lastDay (inclusivo).
+     */
+    public Map<String, Object> generateWeeklyReport(LocalDate lastDay) {
+        return timed("weekly", () -> buildWeeklyReport(lastDay));
+    }
 
-        // Média de avaliações
-        double averageRating = weeklyFeedbacks.stream()
-                .mapToInt(Feedback::getRating)
-                .average()
-                .orElse(0.0);
-        report.put("averageRating", String.format("%.2f", averageRating));
+    private Map<String, Object> buildWeeklyReport(LocalDate lastDay) {
+        log.info("Gerando relatório semanal até {}", lastDay);
 
-        // Distribuição por nota
-        Map<Integer, Long> ratingDistribution = weeklyFeedbacks.stream()
-                .collect(Collectors.groupingBy(Feedback::getRating, Collectors.counting()));
-        report.put("ratingDistribution", ratingDistribution);
+        LocalDate firstDay = lastDay.minusDays(WEEK_DAYS - 1);
+        LocalDateTime periodStart = firstDay.atStartOfDay();
+        LocalDateTime periodEnd = lastDay.isBefore(LocalDate.now())
+                ? lastDay.plusDays(1).atStartOfDay().minusSeconds(1)
+                : LocalDateTime.now();
+        RollupSummary summary = feedbackRollupService.summarize(firstDay, lastDay);
 
-        // Cursos mais avaliados
-        Map<String, Long> courseDistribution = weeklyFeedbacks.stream()
-                .collect(Collectors.groupingBy(Feedback::getCourse, Collectors.counting()));
-        report.put("topCourses", courseDistribution);
+        Map<String, Object> report = new HashMap<>();
+        report.put("reportGeneratedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        report.put("periodStart", periodStart.format(DateTimeFormatter.ISO_DATE_TIME));
+        report.put("periodEnd", periodEnd.format(DateTimeFormatter.ISO_DATE_TIME));
+
+        putSummary(report, summary);
 
-        // Comentários mais recentes (últimos 5)
-        List<Map<String, String>> recentComments = weeklyFeedbacks.stream()
-                .limit(5)
+        // Comentários mais recentes do período (últimos 5)
+        List<Map<String, String>> recentComments = feedbackService
+                .getRecentFeedbacksBetween(periodStart, lastDay.plusDays(1).atStartOfDay())
+                .stream()
                 .map(f -> {
                     Map<String, String> comment = new HashMap<>();
                     comment.put("course", f.getCourse());
@@ -70,14 +136,9 @@ public class ReportService {
                 })
                 .collect(Collectors.toList());
         report.put("recentComments", recentComments);
+        recordRowsScanned("weekly", summary.getRows() + recentComments.size());
 
-        // Alertas (feedbacks com nota 1 ou 2)
-        long criticalFeedbacks = weeklyFeedbacks.stream()
-                .filter(f -> f.getRating() <= 2)
-                .count();
-        report.put("criticalFeedbacks", criticalFeedbacks);
-
-        log.info("Relatório semanal gerado com sucesso. Total de feedbacks: {}", weeklyFeedbacks.size());
+        log.info("Relatório semanal gerado com sucesso. Total de feedbacks: {}", summary.getTotal());
 
         return report;
     }
@@ -86,26 +147,205 @@ public class ReportService {
      * Gera relatório completo (todos os feedbacks).
      */
     public Map<String, Object> generateFullReport() {
+        return timed("full", this::buildFullReport);
+    }
+
+    private Map<String, Object> buildFullReport() {
         log.info("Gerando relatório completo");
 
-        List<FeedbackResponse> allFeedbacks = feedbackService.getAllFeedbacks();
+        RollupSummary summary = feedbackRollupService.summarizeAll();
+        recordRowsScanned("full", summary.getRows());
 
         Map<String, Object> report = new HashMap<>();
         report.put("reportGeneratedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-        report.put("totalFeedbacks", allFeedbacks.size());
-        report.put("overallAverageRating", String.format("%.2f", feedbackService.calculateOverallAverageRating()));
-        report.put("totalUrgentFeedbacks", feedbackService.countUrgentFeedbacks());
+        report.put("totalFeedbacks", summary.getTotal());
+        report.put("overallAverageRating", String.format("%.2f", summary.getAverageRating()));
+        report.put("totalUrgentFeedbacks", summary.getUrgent());
 
         log.info("Relatório completo gerado com sucesso");
 
         return report;
     }
 
+    /**
+     * Gera relatório de um curso (todo o histórico).
+     */
+    public Map<String, Object> generateCourseReport(String course) {
+        return timed("course", () -> buildCourseReport(course));
+    }
+
+    private Map<String, Object> buildCourseReport(String course) {
+        log.info("Gerando relatório do curso: {}", course);
+
+        RollupSummary summary = feedbackRollupService.summarizeCourse(course);
+        recordRowsScanned("course", summary.getRows());
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("reportGeneratedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        report.put("course", course);
+        putSummary(report, summary);
+        report.remove("topCourses");
+
+        return report;
+    }
+
+    /**
+     * Gera relatório histórico de um intervalo de dias (inclusivo), opcionalmente de um curso.
+     * Os dias fechados vêm dos segmentos colunares; apenas o dia corrente consulta o banco.
+     */
+    public Map<String, Object> generateHistoricalReport(LocalDate from, LocalDate to, Integer courseId) {
+        return timed("historical", () -> buildHistoricalReport(from, to, courseId));
+    }
+
+    private Map<String, Object> buildHistoricalReport(LocalDate from, LocalDate to, Integer courseId) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Data final anterior à inicial");
+        }
+        log.info("Gerando relatório histórico de {} a {}", from, to);
+
+        RollupSummary summary = historicalReportEngine.summarize(from, to, courseId);
+        recordRowsScanned("historical", summary.getRows());
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("reportGeneratedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        report.put("periodStart", from.toString());
+        report.put("periodEnd", to.toString());
+        if (courseId != null) {
+            report.put("courseId", courseId);
+        }
+        putSummary(report, summary);
+
+        return report;
+    }
+
+    /**
+     * Gera relatório de um intervalo de dias (inclusivo) agrupado por dia, semana, mês ou curso,
+     * agregando os feedbacks em paralelo, bloco a bloco.
+     */
+    public Map<String, Object> generateRangeReport(LocalDate from, LocalDate to, Integer courseId,
+                                                   RangeReportEngine.GroupBy groupBy) {
+        return timed("range", () -> buildRangeReport(from, to, courseId, groupBy));
+    }
+
+    private Map<String, Object> buildRangeReport(LocalDate from, LocalDate to, Integer courseId,
+                                                 RangeReportEngine.GroupBy groupBy) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Data final anterior à inicial");
+        }
+        if (to.equals(LocalDate.MAX) || ChronoUnit.DAYS.between(from, to) >= rangeMaxDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Intervalo maior que " + rangeMaxDays + " dias");
+        }
+        log.info("Gerando relatório de {} a {} agrupado por {}", from, to, groupBy);
+
+        RangeReportEngine.Result result = rangeReportEngine.aggregate(from, to, courseId, groupBy);
+        recordRowsScanned("range", result.rows());
+
+        long[] ratings = new long[6];
+        long urgent = 0;
+        List<Map<String, Object>> groups = new ArrayList<>();
+        for (RangeReportEngine.Group group : result.groups()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            if (groupBy == RangeReportEngine.GroupBy.COURSE) {
+                if (group.courseId() != null) {
+                    entry.put("courseId", group.courseId());
+                }
+                entry.put("course", group.key());
+            } else {
+                entry.put("period", group.key());
+            }
+            entry.put("totalFeedbacks", group.total());
+            entry.put("urgentFeedbacks", group.urgent());
+            entry.put("criticalFeedbacks", group.critical());
+            entry.put("averageRating", String.format("%.2f", group.averageRating()));
+            entry.put("ratingDistribution", distribution(group.ratings()));
+            groups.add(entry);
+
+            for (int rating = 1; rating <= 5; rating++) {
+                ratings[rating] += group.ratings()[rating];
+            }
+            urgent += group.urgent();
+        }
+        RangeReportEngine.Group overall = new RangeReportEngine.Group(null, null, ratings, urgent);
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("reportGeneratedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        report.put("periodStart", from.toString());
+        report.put("periodEnd", to.toString());
+        if (courseId != null) {
+            report.put("courseId", courseId);
+        }
+        report.put("groupBy", groupBy);
+        report.put("totalFeedbacks", overall.total());
+        report.put("urgentFeedbacks", overall.urgent());
+        report.put("criticalFeedbacks", overall.critical());
+        report.put("averageRating", String.format("%.2f", overall.averageRating()));
+        report.put("ratingDistribution", distribution(ratings));
+        report.put("groups", groups);
+        report.put("chunks", result.chunks());
+
+        return report;
+    }
+
+    private static Map<Integer, Long> distribution(long[] ratings) {
+        Map<Integer, Long> distribution = new HashMap<>();
+        for (int rating = 1; rating <= 5; rating++) {
+            distribution.put(rating, ratings[rating]);
+        }
+        return distribution;
+    }
+
+    /**
+     * Gera relatório de um mês arquivado, lido do arquivo da partição.
+     */
+    public Map<String, Object> generateArchivedMonthReport(YearMonth month) {
+        return timed("archived_month", () -> buildArchivedMonthReport(month));
+    }
+
+    private Map<String, Object> buildArchivedMonthReport(YearMonth month) {
+        log.info("Gerando relatório do mês arquivado: {}", month);
+
+        RollupSummary summary = feedbackArchiveService.summarize(month);
+        recordRowsScanned("archived_month", summary.getRows());
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("reportGeneratedAt", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+        report.put("month", month.toString());
+        putSummary(report, summary);
+
+        return report;
+    }
+
+    /**
+     * Preenche as estatísticas agregadas comuns aos relatórios.
+     */
+    private void putSummary(Map<String, Object> report, RollupSummary summary) {
+        // Estatísticas gerais
+        report.put("totalFeedbacks", summary.getTotal());
+        report.put("urgentFeedbacks", summary.getUrgent());
+
+        // Média de avaliações
+        report.put("averageRating", String.format("%.2f", summary.getAverageRating()));
+
+        // Distribuição por nota
+        report.put("ratingDistribution", summary.getRatingDistribution());
+
+        // Cursos mais avaliados
+        report.put("topCourses", summary.getCourseCounts());
+
+        // Alertas (feedbacks com nota 1 ou 2)
+        report.put("criticalFeedbacks", summary.getCritical());
+    }
+
     /**
      * Gera resumo formatado em texto do relatório semanal.
      */
     public String generateWeeklyReportText() {
-        Map<String, Object> report = generateWeeklyReport();
+        return timed("weekly_text", this::buildWeeklyReportText);
+    }
+
+    private String buildWeeklyReportText() {
+        Map<String, Object> report = buildWeeklyReport(LocalDate.now());
 
         StringBuilder text = new StringBuilder();
         text.append("═══════════════════════════════════════════════════\n");
@@ -134,4 +374,23 @@ public class ReportService {
 
         return text.toString();
     }
+
+    private <T> T timed(String type, Supplier<T> report) {
+        return Timer.builder("report.generate")
+                .description("Tempo de geração de relatórios")
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(report);
+    }
+
+    private void recordRowsScanned(String type, long rows) {
+        rowsScanned.computeIfAbsent(type, t -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("report.rows.scanned", value, AtomicLong::get)
+                    .description("Linhas lidas na última geração do relatório")
+                    .tag("type", t)
+                    .register(meterRegistry);
+            return value;
+        }).set(rows);
+    }
 }
@@ -0,0 +1,129 @@
+package com.feedback.system.service;
+
+import com.feedback.system.repository.FeedbackRollupTotals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Totais de feedback somados a partir dos rollups diários
+ * (ou dos feedbacks de um mês arquivado).
+ */
+public class RollupSummary {
+
+    private final long[] ratingCounts = new long[6];
+    private final Map<String, Long> courseCounts = new HashMap<>();
+    private long urgent;
+    private long critical;
+    private long rows;
+
+    public static RollupSummary of(List<FeedbackRollupTotals> rows) {
+        RollupSummary summary = new RollupSummary();
+        rows.forEach(summary::add);
+        return summary;
+    }
+
+    /**
+     * Monta o resumo a partir de contadores já somados (ex.: varredura dos segmentos colunares).
+     */
+    static RollupSummary fromCounts(long[] ratingCounts, long urgent, long critical, Map<String, Long> courseCounts,
+                                    long rows) {
+        RollupSummary summary = new RollupSummary();
+        System.arraycopy(ratingCounts, 0, summary.ratingCounts, 0, summary.ratingCounts.length);
+        summary.courseCounts.putAll(courseCounts);
+        summary.urgent = urgent;
+        summary.critical = critical;
+        summary.rows = rows;
+        return summary;
+    }
+
+    private void add(FeedbackRollupTotals row) {
+        rows++;
+        long[] ratings = {
+                valueOf(row.getRating1()), valueOf(row.getRating2()), valueOf(row.getRating3()),
+                valueOf(row.getRating4()), valueOf(row.getRating5())
+        };
+        long courseTotal = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            ratingCounts[rating] += ratings[rating - 1];
+            courseTotal += ratings[rating - 1];
+        }
+        courseCounts.merge(row.getCourse(), courseTotal, Long::sum);
+        urgent += valueOf(row.getUrgentCount());
+        critical += valueOf(row.getCriticalCount());
+    }
+
+    /**
+     * Soma um feedback individual (usado ao ler meses arquivados, que não passam pelos rollups).
+     */
+    void addFeedback(String course, int rating, boolean urgentFeedback) {
+        rows++;
+        if (rating >= 1 && rating <= 5) {
+            ratingCounts[rating]++;
+        }
+        courseCounts.merge(course, 1L, Long::sum);
+        if (urgentFeedback) {
+            urgent++;
+        }
+        if (rating <= 2) {
+            critical++;
+        }
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            total += ratingCounts[rating];
+        }
+        return total;
+    }
+
+    /**
+     * Quantidade de linhas somadas (rollups ou feedbacks arquivados).
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public long getUrgent() {
+        return urgent;
+    }
+
+    public long getCritical() {
+        return critical;
+    }
+
+    public double getAverageRating() {
+        long total = getTotal();
+        if (total == 0) {
+            return 0.0;
+        }
+        long sum = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            sum += rating * ratingCounts[rating];
+        }
+        return (double) sum / total;
+    }
+
+    /**
+     * Distribuição por nota, apenas com as notas que tiveram feedbacks.
+     */
+    public Map<Integer, Long> getRatingDistribution() {
+        Map<Integer, Long> distribution = new HashMap<>();
+        for (int rating = 1; rating <= 5; rating++) {
+            if (ratingCounts[rating] > 0) {
+                distribution.put(rating, ratingCounts[rating]);
+            }
+        }
+        return distribution;
+    }
+
+    public Map<String, Long> getCourseCounts() {
+        return courseCounts;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+}
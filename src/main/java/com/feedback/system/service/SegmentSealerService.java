@@ -0,0 +1,215 @@
+package com.feedback.system.service;
+
+import com.feedback.system.config.ExecutionMode;
+import com.feedback.system.model.FeedbackArchive;
+import com.feedback.system.repository.DailyFeedbackCount;
+import com.feedback.system.repository.FeedbackArchiveRepository;
+import com.feedback.system.repository.FeedbackRollupRepository;
+import com.feedback.system.repository.FeedbackScanRepository;
+import com.feedback.system.segment.FeedbackSegment;
+import com.feedback.system.segment.SegmentStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sela os dias fechados (anteriores a hoje) em segmentos colunares imutáveis.
+ * A cada execução compara a quantidade de linhas de cada segmento com o total
+ * dos rollups do dia (atualizados por todas as instâncias na mesma transação
+ * da inserção). Se diferirem, por exemplo após uma importação com datas antigas,
+ * o dia é contado no banco e, confirmada a diferença, selado de novo.
+ * Dias arquivados saem do banco mas mantêm o segmento já selado: meses com registro em
+ * feedback_archives não são selados, e um segmento nunca é trocado por outro com menos linhas.
+ * Feedbacks antigos sem course_id usam o catálogo só para leitura; um dia com curso ainda
+ * fora do catálogo fica sem segmento até o backfill de cursos rodar.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SegmentSealerService {
+
+    private final SegmentStore segmentStore;
+    private final FeedbackScanRepository feedbackScanRepository;
+    private final FeedbackRollupRepository feedbackRollupRepository;
+    private final FeedbackArchiveRepository feedbackArchiveRepository;
+    private final CourseCatalog courseCatalog;
+    private final PlatformTransactionManager transactionManager;
+    private final ExecutionMode executionMode;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feedback.segments.enabled:true}")
+    private boolean enabled;
+
+    @Value("${feedback.segments.fetch-size:1000}")
+    private int fetchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private TransactionTemplate readOnly;
+    private Counter sealedCounter;
+
+    @PostConstruct
+    void init() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        sealedCounter = Counter.builder("feedback.segments.sealed")
+                .description("Dias selados (ou selados novamente) em segmentos colunares")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Na subida, sela em segundo plano o que ficou pendente (a primeira subida com
+     * histórico pode levar minutos), sem segurar os demais listeners do ApplicationReadyEvent.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void sealOnStartup() {
+        if (enabled) {
+            executionMode.threadFactory("segment-sealer-").newThread(this::sealClosedDays).start();
+        }
+    }
+
+    /**
+     * Sela os dias fechados ainda sem segmento ou com segmento desatualizado.
+     */
+    @Scheduled(cron = "${feedback.segments.cron:0 15 * * * *}")
+    public void sealClosedDays() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDate first = feedbackRollupRepository.findFirstRollupDate();
+            LocalDate lastClosed = LocalDate.now().minusDays(1);
+            if (first == null || first.isAfter(lastClosed)) {
+                return;
+            }
+
+            Map<LocalDate, Long> expected = new HashMap<>();
+            for (DailyFeedbackCount count : feedbackRollupRepository.countByDayBetween(first, lastClosed)) {
+                expected.put(count.getDay(), count.getTotal() != null ? count.getTotal() : 0L);
+            }
+
+            Set<String> archivedMonths = feedbackArchiveRepository.findAll().stream()
+                    .map(FeedbackArchive::getMonth)
+                    .collect(Collectors.toSet());
+
+            int sealed = 0;
+            for (LocalDate day = first; !day.isAfter(lastClosed); day = day.plusDays(1)) {
+                if (archivedMonths.contains(YearMonth.from(day).toString())) {
+                    // Linhas fora do banco (e rollups zerados após recálculo): o segmento vale
+                    continue;
+                }
+                FeedbackSegment segment = segmentStore.get(day);
+                long rollupTotal = expected.getOrDefault(day, 0L);
+                if (segment != null && segment.getRows() == rollupTotal) {
+                    continue;
+                }
+                if (segment != null
+                        && feedbackScanRepository.countBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay())
+                        == segment.getRows()) {
+                    // Banco e segmento conferem (dia arquivado ou rollups em recálculo)
+                    continue;
+                }
+                if (seal(day, segment)) {
+                    sealed++;
+                }
+            }
+            if (sealed > 0) {
+                log.info("{} dia(s) selado(s) em segmentos até {}", sealed, lastClosed);
+            }
+        } catch (Exception e) {
+            log.error("Erro ao selar segmentos de feedbacks", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Lê o dia no banco e grava o segmento. Retorna false, sem gravar, se o dia tem curso
+     * fora do catálogo ou se o banco tem menos linhas que o segmento atual.
+     */
+    private boolean seal(LocalDate day, FeedbackSegment existing) {
+        DayColumns columns = new DayColumns();
+        readOnly.executeWithoutResult(status -> feedbackScanRepository.scanForSegment(
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay(), fetchSize, rs -> {
+                    int courseId = rs.getInt("course_id");
+                    if (rs.wasNull()) {
+                        Optional<Integer> known = courseCatalog.findId(rs.getString("course"));
+                        if (known.isEmpty()) {
+                            columns.unresolved = true;
+                            return;
+                        }
+                        courseId = known.get();
+                    }
+                    columns.add((byte) rs.getInt("rating"), rs.getBoolean("urgent"), courseId,
+                            rs.getTimestamp("created_at").toLocalDateTime().toEpochSecond(ZoneOffset.UTC));
+                }));
+        if (columns.unresolved) {
+            log.debug("Dia {} não selado: curso fora do catálogo", day);
+            return false;
+        }
+        if (existing != null && columns.size < existing.getRows()) {
+            log.warn("Dia {} não selado: banco tem {} linha(s), segmento tem {}", day, columns.size,
+                    existing.getRows());
+            return false;
+        }
+        try {
+            segmentStore.write(day, columns.size, columns.ratings, columns.urgent, columns.courseIds,
+                    columns.createdAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar o segmento de " + day, e);
+        }
+        sealedCounter.increment();
+        return true;
+    }
+
+    /**
+     * Colunas de um dia em construção, em arrays primitivos que crescem sob demanda.
+     * unresolved indica uma linha com curso fora do catálogo (o dia não é selado).
+     */
+    private static final class DayColumns {
+
+        private byte[] ratings = new byte[1024];
+        private boolean[] urgent = new boolean[1024];
+        private int[] courseIds = new int[1024];
+        private long[] createdAt = new long[1024];
+        private int size;
+        private boolean unresolved;
+
+        void add(byte rating, boolean isUrgent, int courseId, long createdAtEpochSecond) {
+            if (size == ratings.length) {
+                int capacity = size * 2;
+                ratings = Arrays.copyOf(ratings, capacity);
+                urgent = Arrays.copyOf(urgent, capacity);
+                courseIds = Arrays.copyOf(courseIds, capacity);
+                createdAt = Arrays.copyOf(createdAt, capacity);
+            }
+            ratings[size] = rating;
+            urgent[size] = isUrgent;
+            courseIds[size] = courseId;
+            createdAt[size] = createdAtEpochSecond;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.feedback.system.service;
+
+import com.feedback.system.config.ExecutionMode;
+import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.event.FeedbackCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stream (SSE) de feedbacks urgentes para os painéis administrativos.
+ * Cada feedback urgente é enviado aos inscritos após o commit, com um ID de evento
+ * sequencial. Os últimos eventos ficam em um buffer limitado para retomada via Last-Event-ID.
+ * Conexões ociosas não ocupam threads (async servlet). Cada inscrito tem uma fila limitada,
+ * esvaziada por uma tarefa própria no executor do stream (uma por vez, o que preserva a
+ * ordem); com a fila cheia, o inscrito é desconectado.
+ * Com threads de plataforma, o executor tem feedback.stream.sender-threads threads fixas
+ * (0 = número de núcleos), não uma por conexão; com threads virtuais, cada envio usa uma
+ * thread virtual. Um envio bloqueado (cliente que não lê) por mais de
+ * feedback.stream.send-timeout-ms é detectado no heartbeat e o inscrito é desconectado:
+ * um cliente lento ocupa no máximo uma thread, por tempo limitado.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UrgentFeedbackStreamService {
+
+    static final String EVENT_NAME = "urgent-feedback";
+    static final String RESET_EVENT_NAME = "reset";
+
+    // Marcadores de controle na fila do inscrito (comparados por referência)
+    private static final StreamEvent HEARTBEAT = new StreamEvent(0, null);
+    private static final StreamEvent RESET = new StreamEvent(0, null);
+
+    private final ExecutionMode executionMode;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feedback.stream.replay-size:500}")
+    private int replaySize;
+
+    @Value("${feedback.stream.max-subscribers:5000}")
+    private int maxSubscribers;
+
+    @Value("${feedback.stream.subscriber-queue-size:64}")
+    private int subscriberQueueSize;
+
+    @Value("${feedback.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${feedback.stream.sender-threads:0}")
+    private int senderThreads;
+
+    @Value("${feedback.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // Diferencia IDs de eventos de execuções anteriores (ex.: após restart)
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Deque<StreamEvent> replayBuffer = new ArrayDeque<>();
+    private long sequence;
+
+    private ExecutorService senders;
+    private Counter sentCounter;
+    private Counter droppedCounter;
+
+    /**
+     * Evento já numerado, mantido no buffer de retomada.
+     */
+    private record StreamEvent(long sequence, FeedbackResponse feedback) {
+    }
+
+    /**
+     * Inscrito: emitter, fila de saída e último evento enviado (para não repetir eventos).
+     * sendStartedAt é o início do envio em andamento (0 sem envio). Os métodos do emitter
+     * são sincronizados: com um envio em andamento, quem desconecta o inscrito (publicação,
+     * heartbeat) só grava o motivo em closeCause, e a thread de envio encerra o emitter ao retornar.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile long sendStartedAt;
+        private volatile Exception closeCause;
+        private long lastSequence;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Enfileira sem bloquear; com a fila cheia o inscrito é desconectado.
+         */
+        void offer(StreamEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                drop(new IOException("Fila do inscrito cheia"));
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            StreamEvent event;
+            while (!closed.get() && (event = queue.poll()) != null) {
+                if (event == HEARTBEAT) {
+                    send(SseEmitter.event().comment("heartbeat"));
+                } else if (event == RESET) {
+                    send(SseEmitter.event().name(RESET_EVENT_NAME).data("Eventos anteriores indisponíveis"));
+                } else if (event.sequence() > lastSequence) {
+                    lastSequence = event.sequence();
+                    send(toSseEvent(event));
+                }
+            }
+            scheduled.set(false);
+            // Evento enfileirado depois do último poll e antes de liberar a tarefa
+            if (!closed.get() && !queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            sendStartedAt = System.nanoTime();
+            try {
+                emitter.send(event);
+                sentCounter.increment();
+            } catch (IOException | IllegalStateException e) {
+                drop(e);
+            } finally {
+                sendStartedAt = 0;
+            }
+            Exception cause = closeCause;
+            if (cause != null) {
+                finish(cause);
+            }
+        }
+
+        /**
+         * Chamado pelo heartbeat: desconecta o inscrito se o envio em andamento passou do limite.
+         */
+        void dropIfStalled(long nowNanos, long timeoutNanos) {
+            long started = sendStartedAt;
+            if (started != 0 && nowNanos - started >= timeoutNanos) {
+                drop(new IOException("Envio ao inscrito excedeu o tempo limite"));
+            }
+        }
+
+        private void drop(Exception cause) {
+            if (!close()) {
+                return;
+            }
+            droppedCounter.increment();
+            closeCause = cause;
+            // Com envio em andamento, a thread de envio encerra o emitter quando ele retornar
+            if (sendStartedAt == 0) {
+                finish(cause);
+            }
+        }
+
+        private void finish(Exception cause) {
+            if (finished.compareAndSet(false, true)) {
+                emitter.completeWithError(cause);
+            }
+        }
+
+        /**
+         * Retira o inscrito da lista e libera a vaga; true só na primeira chamada.
+         */
+        boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            subscribers.remove(this);
+            subscriberCount.decrementAndGet();
+            queue.clear();
+            return true;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        ThreadFactory threadFactory = executionMode.threadFactory("urgent-feedback-stream-");
+        if (executionMode.isVirtualThreads()) {
+            senders = Executors.newCachedThreadPool(threadFactory);
+        } else {
+            // No máximo uma tarefa por inscrito na fila do executor (flag scheduled)
+            int threads = senderThreads > 0 ? senderThreads : Runtime.getRuntime().availableProcessors();
+            senders = Executors.newFixedThreadPool(threads, threadFactory);
+        }
+
+        Gauge.builder("feedback.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Inscritos no stream de feedbacks urgentes")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("feedback.stream.sent")
+                .description("Eventos enviados aos inscritos do stream")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("feedback.stream.dropped")
+                .description("Inscritos removidos por falha de envio ou fila cheia")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.close()) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Inscreve um cliente no stream.
+     * Com Last-Event-ID, reenvia os eventos posteriores ainda no buffer; se o ID for
+     * desconhecido ou antigo demais, envia um evento "reset" para o cliente recarregar a lista.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        int current;
+        do {
+            current = subscriberCount.get();
+            if (current >= maxSubscribers) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Limite de inscritos no stream atingido, tente novamente");
+            }
+        } while (!subscriberCount.compareAndSet(current, current + 1));
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, subscriberQueueSize + replaySize);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Sob o mesmo lock da publicação: a retomada entra na fila antes de qualquer evento novo
+        synchronized (replayBuffer) {
+            List<StreamEvent> missed = new ArrayList<>();
+            if (collectMissed(lastEventId, missed)) {
+                subscriber.offer(RESET);
+            }
+            missed.forEach(subscriber::offer);
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    /**
+     * Publica os feedbacks urgentes após o commit da transação que os gravou.
+     * Só enfileira (sem bloquear) nas filas dos inscritos; o envio é feito pelas tarefas de cada um.
+     */
+    @TransactionalEventListener
+    public void onFeedbackCreated(FeedbackCreatedEvent event) {
+        synchronized (replayBuffer) {
+            for (FeedbackResponse feedback : event.feedbacks()) {
+                if (!feedback.isUrgent()) {
+                    continue;
+                }
+                StreamEvent streamEvent = new StreamEvent(++sequence, feedback);
+                replayBuffer.addLast(streamEvent);
+                if (replayBuffer.size() > replaySize) {
+                    replayBuffer.removeFirst();
+                }
+                subscribers.forEach(subscriber -> subscriber.offer(streamEvent));
+            }
+        }
+    }
+
+    /**
+     * Comentário periódico que mantém as conexões abertas em proxies
+     * e detecta inscritos desconectados ou com envio bloqueado.
+     */
+    @Scheduled(fixedDelayString = "${feedback.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.dropIfStalled(now, timeoutNanos);
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    /**
+     * Preenche {@code missed} com os eventos posteriores a {@code lastEventId}.
+     *
+     * @return true se o ID não permite retomada (outra execução ou fora do buffer)
+     */
+    private boolean collectMissed(String lastEventId, List<StreamEvent> missed) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return false;
+        }
+
+        long lastSequence = parseSequence(lastEventId);
+        long oldestAvailable = replayBuffer.isEmpty() ? sequence + 1 : replayBuffer.peekFirst().sequence();
+        if (lastSequence < 0 || lastSequence > sequence || lastSequence + 1 < oldestAvailable) {
+            return true;
+        }
+
+        for (StreamEvent event : replayBuffer) {
+            if (event.sequence() > lastSequence) {
+                missed.add(event);
+            }
+        }
+        return false;
+    }
+
+    private long parseSequence(String eventId) {
+        int separator = eventId.indexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSseEvent(StreamEvent event) {
+        return SseEmitter.event()
+                .id(epoch + "-" + event.sequence())
+                .name(EVENT_NAME)
+                .data(event.feedback());
+    }
+}
@@ -0,0 +1,78 @@
+-- ==============================================================================
+-- Particionamento mensal da tabela feedbacks (PostgreSQL 13+)
+-- ==============================================================================
+-- Converte a tabela criada pelo Hibernate em uma tabela particionada por
+-- intervalo de created_at, uma partição por mês (feedbacks_pYYYYMM).
+-- Consultas com filtro em created_at (semana, intervalo de datas, keyset)
+-- passam a ler só as partições do período.
+--
+-- Executar uma única vez, com a aplicação parada:
+--   psql -d feedbackdb -v ON_ERROR_STOP=1 -f partition-feedbacks.sql
+-- Depois, ative feedback.partitioning.enabled=true: o PartitionMaintenanceService
+-- cria as partições dos meses seguintes e arquiva as mais antigas.
+--
+-- A partição padrão (feedbacks_default) recebe linhas sem partição mensal, como
+-- importações com datas anteriores ou muito à frente; ao criar a partição de um mês,
+-- o serviço move para ela as linhas do mês que estiverem na padrão.
+--
+-- A chave primária passa a ser (id, created_at), pois toda restrição única de
+-- uma tabela particionada precisa incluir a chave de particionamento.
+-- Os IDs continuam sendo UUIDs gerados pela aplicação.
+-- ==============================================================================
+
+BEGIN;
+
+ALTER TABLE feedbacks RENAME TO feedbacks_unpartitioned;
+ALTER TABLE feedbacks_unpartitioned RENAME CONSTRAINT feedbacks_pkey TO feedbacks_unpartitioned_pkey;
+ALTER INDEX idx_urgent_created_at_id RENAME TO idx_unpartitioned_urgent_created_at_id;
+ALTER INDEX idx_created_at_id RENAME TO idx_unpartitioned_created_at_id;
+ALTER INDEX idx_student_email_created_at_id RENAME TO idx_unpartitioned_student_email_created_at_id;
+ALTER INDEX idx_course_id_created_at_id RENAME TO idx_unpartitioned_course_id_created_at_id;
+
+CREATE TABLE feedbacks (
+    id            VARCHAR(255)  NOT NULL,
+    student_name  VARCHAR(255)  NOT NULL,
+    student_email VARCHAR(255)  NOT NULL,
+    course        VARCHAR(255)  NOT NULL,
+    course_id     INTEGER,
+    rating        INTEGER       NOT NULL,
+    comment       VARCHAR(2000) NOT NULL,
+    urgent        BOOLEAN       NOT NULL,
+    created_at    TIMESTAMP(6)  NOT NULL,
+    updated_at    TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_urgent_created_at_id ON feedbacks (urgent, created_at, id);
+CREATE INDEX idx_created_at_id ON feedbacks (created_at, id);
+CREATE INDEX idx_student_email_created_at_id ON feedbacks (student_email, created_at, id);
+CREATE INDEX idx_course_id_created_at_id ON feedbacks (course_id, created_at, id);
+
+-- Uma partição por mês, do mês mais antigo com dados até três meses à frente
+DO $$
+DECLARE
+    month_start DATE;
+    last_month  DATE := date_trunc('month', now()) + INTERVAL '3 months';
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(created_at)), date_trunc('month', now()))
+      INTO month_start FROM feedbacks_unpartitioned;
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF feedbacks FOR VALUES FROM (%L) TO (%L)',
+                       'feedbacks_p' || to_char(month_start, 'YYYYMM'),
+                       month_start, month_start + INTERVAL '1 month');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+CREATE TABLE feedbacks_default PARTITION OF feedbacks DEFAULT;
+
+INSERT INTO feedbacks (id, student_name, student_email, course, course_id, rating, comment, urgent,
+                       created_at, updated_at)
+SELECT id, student_name, student_email, course, course_id, rating, comment, urgent, created_at, updated_at
+FROM feedbacks_unpartitioned;
+
+DROP TABLE feedbacks_unpartitioned;
+
+COMMIT;
+
+ANALYZE feedbacks;
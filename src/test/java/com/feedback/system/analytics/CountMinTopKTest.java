@@ -0,0 +1,65 @@
+package com.feedback.system.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinTopKTest {
+
+    /**
+     * Curso i com (i + 1) * 10 feedbacks, para i em [0, courses).
+     */
+    private static CountMinTopK sketchOf(int courses) {
+        CountMinTopK sketch = new CountMinTopK();
+        for (int course = 0; course < courses; course++) {
+            sketch.add(course, (course + 1) * 10);
+        }
+        return sketch;
+    }
+
+    @Test
+    void neverUnderestimatesAndStaysWithinTheErrorBound() {
+        CountMinTopK sketch = sketchOf(2000);
+        long maxOverestimate = (long) Math.ceil(Math.E / CountMinTopK.WIDTH * sketch.getTotal());
+
+        int withinBound = 0;
+        for (int course = 0; course < 2000; course++) {
+            long actual = (course + 1) * 10L;
+            long estimate = sketch.estimate(course);
+            assertThat(estimate).isGreaterThanOrEqualTo(actual);
+            if (estimate - actual <= maxOverestimate) {
+                withinBound++;
+            }
+        }
+
+        assertThat(withinBound).isGreaterThanOrEqualTo((int) (2000 * 0.95));
+    }
+
+    @Test
+    void topReturnsTheHeaviestCourses() {
+        Map<Integer, Long> top = sketchOf(100).top(3);
+
+        assertThat(top.keySet()).containsExactly(99, 98, 97);
+        assertThat(top.get(99)).isGreaterThanOrEqualTo(1000L);
+    }
+
+    @Test
+    void mergeSumsCountersAndTotals() {
+        CountMinTopK merged = sketchOf(10);
+        merged.merge(sketchOf(10));
+
+        assertThat(merged.getTotal()).isEqualTo(2 * sketchOf(10).getTotal());
+        assertThat(merged.estimate(9)).isGreaterThanOrEqualTo(200L);
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        CountMinTopK sketch = sketchOf(50);
+        CountMinTopK restored = CountMinTopK.fromBytes(sketch.toBytes());
+
+        assertThat(restored.getTotal()).isEqualTo(sketch.getTotal());
+        assertThat(restored.top(CountMinTopK.CANDIDATES)).isEqualTo(sketch.top(CountMinTopK.CANDIDATES));
+    }
+}
@@ -0,0 +1,68 @@
+package com.feedback.system.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    private static HyperLogLog sketchOf(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.add("aluno" + i + "@fiap.com.br");
+        }
+        return sketch;
+    }
+
+    @Test
+    void smallCardinalityIsNearlyExact() {
+        assertThat(sketchOf(0, 1000).estimate()).isCloseTo(1000L, within(20L));
+    }
+
+    @Test
+    void largeCardinalityStaysWithinThreeStandardErrors() {
+        long estimate = sketchOf(0, 200_000).estimate();
+
+        assertThat(estimate).isCloseTo(200_000L, within((long) (200_000 * 3 * 1.04 / 64)));
+    }
+
+    @Test
+    void duplicatesDoNotChangeTheEstimate() {
+        HyperLogLog sketch = sketchOf(0, 500);
+        long before = sketch.estimate();
+        for (int i = 0; i < 500; i++) {
+            sketch.add("aluno" + i + "@fiap.com.br");
+        }
+
+        assertThat(sketch.estimate()).isEqualTo(before);
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        HyperLogLog merged = sketchOf(0, 60_000);
+        merged.merge(sketchOf(30_000, 90_000));
+
+        assertThat(merged.estimate()).isCloseTo(90_000L, within((long) (90_000 * 3 * 1.04 / 64)));
+    }
+
+    @Test
+    void mergeIsIdempotent() {
+        HyperLogLog sketch = sketchOf(0, 5000);
+        long before = sketch.estimate();
+        sketch.merge(sketchOf(0, 5000));
+
+        assertThat(sketch.estimate()).isEqualTo(before);
+    }
+
+    @Test
+    void roundTripsSparseAndDenseFormats() {
+        HyperLogLog sparse = sketchOf(0, 50);
+        HyperLogLog dense = sketchOf(0, 50_000);
+
+        assertThat(sparse.toBytes()).hasSizeLessThan(4096);
+        assertThat(dense.toBytes()).hasSize(1 + 4096);
+        assertThat(HyperLogLog.fromBytes(sparse.toBytes()).estimate()).isEqualTo(sparse.estimate());
+        assertThat(HyperLogLog.fromBytes(dense.toBytes()).estimate()).isEqualTo(dense.estimate());
+    }
+}
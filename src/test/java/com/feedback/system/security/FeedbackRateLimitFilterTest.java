@@ -0,0 +1,86 @@
+package com.feedback.system.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedbackRateLimitFilterTest {
+
+    private FeedbackRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new FeedbackRateLimitFilter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "principalCapacity", 10);
+        ReflectionTestUtils.setField(filter, "principalRefillPerSecond", 0.001);
+        ReflectionTestUtils.setField(filter, "ipCapacity", 2);
+        ReflectionTestUtils.setField(filter, "ipRefillPerSecond", 0.001);
+        ReflectionTestUtils.setField(filter, "maxKeys", 1000);
+        filter.init();
+    }
+
+    private MockHttpServletResponse post(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void limitsSynchronousSubmissions() throws Exception {
+        assertThat(post("/api/feedbacks").getStatus()).isEqualTo(200);
+        assertThat(post("/api/feedbacks").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = post("/api/feedbacks");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isNotNull();
+    }
+
+    @Test
+    void limitsAsyncSubmissions() throws Exception {
+        assertThat(post("/api/feedbacks/async").getStatus()).isEqualTo(200);
+        assertThat(post("/api/feedbacks/async").getStatus()).isEqualTo(200);
+
+        assertThat(post("/api/feedbacks/async").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void bothRoutesShareTheSameBucket() throws Exception {
+        post("/api/feedbacks");
+        post("/api/feedbacks/async");
+
+        assertThat(post("/api/feedbacks/async").getStatus()).isEqualTo(429);
+        assertThat(post("/api/feedbacks").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void ignoresOtherRoutes() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(post("/api/feedbacks/me").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertThat(FeedbackRateLimitFilter.retryAfterSeconds(1)).isEqualTo(1);
+        assertThat(FeedbackRateLimitFilter.retryAfterSeconds(1_000_000_000L)).isEqualTo(1);
+        assertThat(FeedbackRateLimitFilter.retryAfterSeconds(1_000_000_001L)).isEqualTo(2);
+        assertThat(FeedbackRateLimitFilter.retryAfterSeconds(2_500_000_000L)).isEqualTo(3);
+    }
+
+    @Test
+    void retryAfterIsAtLeastOneSecond() {
+        assertThat(FeedbackRateLimitFilter.retryAfterSeconds(0)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,137 @@
+package com.feedback.system.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long START = 1_000 * SECOND;
+
+    @Test
+    void allowsABurstUpToCapacityThenReportsTheWait() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 1.0, 100, 4);
+
+        assertThat(limiter.tryAcquire("a", START)).isZero();
+        assertThat(limiter.tryAcquire("a", START)).isZero();
+        assertThat(limiter.tryAcquire("a", START)).isZero();
+        assertThat(limiter.tryAcquire("a", START)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void refillsProportionallyToElapsedTime() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 2.0, 100, 4);
+        limiter.tryAcquire("a", START);
+
+        assertThat(limiter.tryAcquire("a", START + SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(limiter.tryAcquire("a", START + SECOND / 2)).isZero();
+    }
+
+    @Test
+    void refillNeverExceedsCapacity() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1.0, 100, 4);
+        limiter.tryAcquire("a", START);
+        long later = START + 60 * SECOND;
+
+        assertThat(limiter.tryAcquire("a", later)).isZero();
+        assertThat(limiter.tryAcquire("a", later)).isZero();
+        assertThat(limiter.tryAcquire("a", later)).isPositive();
+    }
+
+    @Test
+    void refundReturnsTheConsumedToken() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 0.1, 100, 4);
+        limiter.tryAcquire("a", START);
+
+        limiter.refund("a", START);
+
+        assertThat(limiter.tryAcquire("a", START)).isZero();
+    }
+
+    @Test
+    void refundNeverExceedsCapacity() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 0.1, 100, 4);
+        limiter.tryAcquire("a", START);
+        limiter.refund("a", START);
+        limiter.refund("a", START);
+
+        assertThat(limiter.tryAcquire("a", START)).isZero();
+        assertThat(limiter.tryAcquire("a", START)).isPositive();
+    }
+
+    @Test
+    void refundOfUnknownKeyCreatesNoBucket() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1.0, 100, 4);
+
+        limiter.refund("a", START);
+
+        assertThat(limiter.size()).isZero();
+    }
+
+    @Test
+    void evictIdleRemovesOnlyFullBucketsAndKeepsTheOthersReachable() {
+        // Uma faixa só: muitas colisões e deslocamentos na remoção
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1.0, 10_000, 1);
+        List<String> idle = new ArrayList<>();
+        List<String> active = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String key = "10.0." + (i / 250) + "." + (i % 250);
+            if (i % 3 == 0) {
+                idle.add(key);
+                limiter.tryAcquire(key, START);
+            } else {
+                active.add(key);
+                limiter.tryAcquire(key, START + 2 * SECOND);
+            }
+        }
+
+        int evicted = limiter.evictIdle(START + 2 * SECOND);
+
+        assertThat(evicted).isEqualTo(idle.size());
+        assertThat(limiter.size()).isEqualTo(active.size());
+        for (String key : active) {
+            // Bucket mantido (sem token); um bucket novo teria a capacidade cheia
+            assertThat(limiter.tryAcquire(key, START + 2 * SECOND)).as(key).isPositive();
+        }
+    }
+
+    @Test
+    void keepsAtMostMaxKeys() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1.0, 8, 1);
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("key-" + i, START);
+        }
+
+        assertThat(limiter.size()).isEqualTo(8);
+    }
+
+    @Test
+    void evictionKeepsRecurringKeysOverOneShotKeys() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 0.001, 4, 1);
+        String[] recurring = {"a", "b", "c"};
+        for (String key : recurring) {
+            limiter.tryAcquire(key, START);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("scan-" + i, START);
+            for (String key : recurring) {
+                // Ainda sem token: o bucket não foi trocado por um novo
+                assertThat(limiter.tryAcquire(key, START)).as(key + " após scan-" + i).isPositive();
+            }
+        }
+        assertThat(limiter.size()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsStripeCountThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new TokenBucketLimiter(1, 1.0, 100, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.feedback.system.segment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedbackSegmentTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 15);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEveryColumn() throws IOException {
+        // 3 linhas: os offsets de course_id e created_at precisam de alinhamento
+        byte[] ratings = {1, 5, 3};
+        boolean[] urgent = {true, false, true};
+        int[] courseIds = {7, 42, Integer.MAX_VALUE};
+        long[] createdAt = {1_710_460_800L, 1_710_500_000L, 1_710_547_199L};
+        Path path = directory.resolve(DAY + ".seg");
+
+        FeedbackSegment.write(path, DAY, 3, ratings, urgent, courseIds, createdAt);
+        FeedbackSegment segment = FeedbackSegment.map(path);
+
+        assertThat(segment.getDay()).isEqualTo(DAY);
+        assertThat(segment.getRows()).isEqualTo(3);
+        for (int row = 0; row < 3; row++) {
+            assertThat(segment.rating(row)).isEqualTo(ratings[row]);
+            assertThat(segment.urgent(row)).isEqualTo(urgent[row]);
+            assertThat(segment.courseId(row)).isEqualTo(courseIds[row]);
+            assertThat(segment.createdAtEpochSecond(row)).isEqualTo(createdAt[row]);
+        }
+    }
+
+    @Test
+    void writesOnlyTheFirstRowsOfLargerArrays() throws IOException {
+        Path path = directory.resolve(DAY + ".seg");
+
+        FeedbackSegment.write(path, DAY, 1, new byte[]{4, 2}, new boolean[]{false, true},
+                new int[]{9, 8}, new long[]{100L, 200L});
+        FeedbackSegment segment = FeedbackSegment.map(path);
+
+        assertThat(segment.getRows()).isEqualTo(1);
+        assertThat(segment.rating(0)).isEqualTo(4);
+        assertThat(segment.courseId(0)).isEqualTo(9);
+        assertThat(segment.createdAtEpochSecond(0)).isEqualTo(100L);
+    }
+
+    @Test
+    void emptyDayRoundTrips() throws IOException {
+        Path path = directory.resolve(DAY + ".seg");
+
+        FeedbackSegment.write(path, DAY, 0, new byte[0], new boolean[0], new int[0], new long[0]);
+
+        assertThat(FeedbackSegment.map(path).getRows()).isZero();
+    }
+
+    @Test
+    void rewriteReplacesTheFileAtomically() throws IOException {
+        Path path = directory.resolve(DAY + ".seg");
+        FeedbackSegment.write(path, DAY, 1, new byte[]{1}, new boolean[]{false}, new int[]{1}, new long[]{1L});
+
+        FeedbackSegment.write(path, DAY, 2, new byte[]{2, 3}, new boolean[]{false, false}, new int[]{1, 2},
+                new long[]{1L, 2L});
+
+        assertThat(FeedbackSegment.map(path).getRows()).isEqualTo(2);
+        assertThat(path.resolveSibling(path.getFileName() + ".tmp")).doesNotExist();
+    }
+
+    @Test
+    void rejectsFilesWithoutTheMagicNumber() throws IOException {
+        Path path = directory.resolve("invalido.seg");
+        Files.write(path, new byte[32]);
+
+        assertThatThrownBy(() -> FeedbackSegment.map(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Segmento inválido");
+    }
+}
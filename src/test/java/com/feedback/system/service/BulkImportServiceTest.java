@@ -0,0 +1,112 @@
+package com.feedback.system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.feedback.system.dto.BulkImportResponse;
+import com.feedback.system.model.Feedback;
+import com.feedback.system.model.FeedbackArchive;
+import com.feedback.system.repository.FeedbackArchiveRepository;
+import com.feedback.system.repository.FeedbackBatchRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkImportServiceTest {
+
+    private static final int MAX_LINE_LENGTH = 300;
+
+    private final List<Feedback> inserted = new ArrayList<>();
+    private CourseCatalog courseCatalog;
+    private BulkImportService service;
+
+    @BeforeEach
+    void setUp() {
+        // O serviço reaproveita a lista do lote: copia o que foi gravado
+        FeedbackBatchRepository batchRepository = mock(FeedbackBatchRepository.class);
+        doAnswer(invocation -> inserted.addAll(invocation.getArgument(0))).when(batchRepository).insertAll(any());
+        courseCatalog = mock(CourseCatalog.class);
+        FeedbackArchive archive = new FeedbackArchive();
+        archive.setMonth("2023-01");
+        FeedbackArchiveRepository archiveRepository = mock(FeedbackArchiveRepository.class);
+        when(archiveRepository.findAll()).thenReturn(List.of(archive));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        service = new BulkImportService(batchRepository, mock(FeedbackRollupService.class), courseCatalog,
+                archiveRepository, new TransactionTemplate(transactionManager),
+                Validation.buildDefaultValidatorFactory().getValidator(), mock(ApplicationEventPublisher.class),
+                new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 100);
+        ReflectionTestUtils.setField(service, "maxLineLength", MAX_LINE_LENGTH);
+    }
+
+    private static String record(String course, String comment, String createdAt) {
+        return "{\"studentName\":\"Aluno\",\"studentEmail\":\"aluno@fiap.com.br\",\"course\":\"" + course
+                + "\",\"rating\":4,\"comment\":\"" + comment + "\""
+                + (createdAt != null ? ",\"createdAt\":\"" + createdAt + "\"" : "") + "}";
+    }
+
+    private BulkImportResponse importLines(String body) throws IOException {
+        return service.importNdjson(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void rejectsOversizedLinesAndKeepsReadingTheNextOnes() throws IOException {
+        String oversized = record("Java", "x".repeat(100_000), null);
+
+        BulkImportResponse response = importLines(record("Java", "primeiro", null) + "\n"
+                + oversized + "\n"
+                + record("Java", "terceiro", null) + "\n");
+
+        assertThat(response.getTotalLines()).isEqualTo(3);
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getMessages()).containsExactly("Linha excede o limite de 300 caracteres");
+        });
+        assertThat(inserted).extracting(Feedback::getComment).containsExactly("primeiro", "terceiro");
+    }
+
+    @Test
+    void acceptsCrlfLinesUpToTheLimit() throws IOException {
+        String base = record("Java", "", null);
+        String atLimit = record("Java", "y".repeat(MAX_LINE_LENGTH - base.length()), null);
+
+        BulkImportResponse response = importLines(atLimit + "\r\n" + record("Java", "z", null));
+
+        assertThat(response.getRejected()).isZero();
+        assertThat(response.getImported()).isEqualTo(2);
+    }
+
+    @Test
+    void archivedMonthIsRejectedBeforeTheCourseIsAssigned() throws IOException {
+        BulkImportResponse response = importLines(record("Curso Novo", "antigo", "2023-01-10T10:00:00") + "\n"
+                + record("Java", "recente", "2023-02-10T10:00:00") + "\n");
+
+        assertThat(response.getErrors()).singleElement().satisfies(error ->
+                assertThat(error.getMessages()).containsExactly("createdAt: mês já arquivado"));
+        ArgumentCaptor<Feedback> assigned = ArgumentCaptor.forClass(Feedback.class);
+        verify(courseCatalog, times(1)).assign(assigned.capture());
+        assertThat(assigned.getValue().getCourse()).isEqualTo("Java");
+    }
+}
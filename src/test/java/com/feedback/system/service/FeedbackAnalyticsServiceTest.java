@@ -0,0 +1,149 @@
+package com.feedback.system.service;
+
+import com.feedback.system.analytics.CountMinTopK;
+import com.feedback.system.analytics.HyperLogLog;
+import com.feedback.system.dto.FeedbackResponse;
+import com.feedback.system.event.FeedbackCreatedEvent;
+import com.feedback.system.model.FeedbackSketch;
+import com.feedback.system.repository.FeedbackRollupRepository;
+import com.feedback.system.repository.FeedbackScanRepository;
+import com.feedback.system.repository.FeedbackSketchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FeedbackAnalyticsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 15);
+    private static final int COURSE_ID = 1;
+
+    private FeedbackSketchRepository sketchRepository;
+    private FeedbackAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        sketchRepository = mock(FeedbackSketchRepository.class);
+        CourseCatalog courseCatalog = mock(CourseCatalog.class);
+        when(courseCatalog.findId("Java")).thenReturn(Optional.of(COURSE_ID));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        service = new FeedbackAnalyticsService(sketchRepository, mock(FeedbackRollupRepository.class),
+                mock(FeedbackScanRepository.class), courseCatalog, transactionManager, null,
+                new SimpleMeterRegistry());
+        service.init();
+    }
+
+    private void storedSketches(HyperLogLog students, CountMinTopK courseCounts) {
+        when(sketchRepository.findForUpdate(DAY, COURSE_ID, FeedbackSketch.Kind.DISTINCT_STUDENTS))
+                .thenReturn(Optional.of(new FeedbackSketch(DAY, COURSE_ID, FeedbackSketch.Kind.DISTINCT_STUDENTS,
+                        students.toBytes())));
+        when(sketchRepository.findForUpdate(DAY, FeedbackSketch.ALL_COURSES, FeedbackSketch.Kind.COURSE_COUNTS))
+                .thenReturn(Optional.of(new FeedbackSketch(DAY, FeedbackSketch.ALL_COURSES,
+                        FeedbackSketch.Kind.COURSE_COUNTS, courseCounts.toBytes())));
+    }
+
+    private void feedbackFrom(String email) {
+        service.onFeedbackCreated(new FeedbackCreatedEvent(List.of(new FeedbackResponse("id-" + email, "Aluno",
+                email, "Java", 4, "ok", false, DAY.atTime(10, 0)))));
+    }
+
+    private FeedbackSketch lastSaved(FeedbackSketch.Kind kind) {
+        ArgumentCaptor<FeedbackSketch> saved = ArgumentCaptor.forClass(FeedbackSketch.class);
+        verify(sketchRepository, atLeastOnce()).save(saved.capture());
+        List<FeedbackSketch> ofKind = saved.getAllValues().stream().filter(s -> s.getKind() == kind).toList();
+        return ofKind.get(ofKind.size() - 1);
+    }
+
+    @Test
+    void flushMergesDeltaIntoStoredSketches() {
+        HyperLogLog students = new HyperLogLog();
+        students.add("a@fiap.com.br");
+        students.add("b@fiap.com.br");
+        CountMinTopK courseCounts = new CountMinTopK();
+        courseCounts.add(COURSE_ID, 2);
+        storedSketches(students, courseCounts);
+        when(sketchRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        feedbackFrom("c@fiap.com.br");
+        service.flush();
+
+        assertThat(HyperLogLog.fromBytes(lastSaved(FeedbackSketch.Kind.DISTINCT_STUDENTS).getData()).estimate())
+                .isEqualTo(3);
+        assertThat(CountMinTopK.fromBytes(lastSaved(FeedbackSketch.Kind.COURSE_COUNTS).getData()).getTotal())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void failedFlushIsRetriedWithoutCountingStoredSketchesTwice() {
+        HyperLogLog students = new HyperLogLog();
+        students.add("a@fiap.com.br");
+        CountMinTopK courseCounts = new CountMinTopK();
+        courseCounts.add(COURSE_ID, 5);
+        storedSketches(students, courseCounts);
+        // A primeira gravação do count-min falha e desfaz o ciclo inteiro
+        when(sketchRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new IllegalStateException("banco indisponível"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        feedbackFrom("b@fiap.com.br");
+        service.flush();
+        service.flush();
+
+        assertThat(CountMinTopK.fromBytes(lastSaved(FeedbackSketch.Kind.COURSE_COUNTS).getData()).getTotal())
+                .isEqualTo(6);
+        assertThat(HyperLogLog.fromBytes(lastSaved(FeedbackSketch.Kind.DISTINCT_STUDENTS).getData()).estimate())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void concurrentInsertIsRetriedAsUpdate() {
+        CountMinTopK inserted = new CountMinTopK();
+        inserted.add(COURSE_ID, 4);
+        when(sketchRepository.findForUpdate(eq(DAY), eq(COURSE_ID), eq(FeedbackSketch.Kind.DISTINCT_STUDENTS)))
+                .thenReturn(Optional.empty());
+        // Outra instância insere o count-min do dia entre a leitura e a inserção
+        when(sketchRepository.findForUpdate(DAY, FeedbackSketch.ALL_COURSES, FeedbackSketch.Kind.COURSE_COUNTS))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new FeedbackSketch(DAY, FeedbackSketch.ALL_COURSES,
+                        FeedbackSketch.Kind.COURSE_COUNTS, inserted.toBytes())));
+        when(sketchRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        feedbackFrom("a@fiap.com.br");
+        service.flush();
+
+        assertThat(CountMinTopK.fromBytes(lastSaved(FeedbackSketch.Kind.COURSE_COUNTS).getData()).getTotal())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void feedbackFromUnknownCourseIsSkipped() {
+        service.onFeedbackCreated(new FeedbackCreatedEvent(List.of(new FeedbackResponse("id", "Aluno",
+                "a@fiap.com.br", "Desconhecido", 4, "ok", false, LocalDateTime.of(2024, 3, 15, 10, 0)))));
+        service.flush();
+
+        verify(sketchRepository, never()).save(any());
+    }
+}